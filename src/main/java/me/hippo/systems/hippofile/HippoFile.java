@@ -26,12 +26,29 @@ package me.hippo.systems.hippofile;
 
 import me.hippo.systems.hippofile.encrypt.Encrypter;
 import me.hippo.systems.hippofile.exception.HippoFileException;
+import me.hippo.systems.hippofile.object.HippoFileElement;
 import me.hippo.systems.hippofile.object.HippoFileObject;
+import me.hippo.systems.hippofile.object.HippoFileObjectListener;
 import me.hippo.systems.hippofile.service.HippoFileService;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.UnaryOperator;
 
 /**
  * @author Hippo
@@ -62,8 +79,49 @@ public final class HippoFile {
 
     /**
      * An {@link CopyOnWriteArrayList} of {@link HippoFileObject} to store all of the files content.
+     * <p>
+     *     The list is swapped as a whole by {@link #replaceContent(UnaryOperator)}, so readers see either all of a replacement or none of it.
+     * </p>
+     */
+    private volatile CopyOnWriteArrayList<HippoFileObject> content = new CopyOnWriteArrayList<>();
+
+    /**
+     * The latest {@link HippoFileSnapshot}, published again after every change.
+     */
+    private volatile HippoFileSnapshot snapshot = new HippoFileSnapshot(null, HippoFileVector.EMPTY);
+
+    /**
+     * The positions of each {@link HippoFileObject} in {@code content}, used to update {@code snapshot} when an object changes.
+     */
+    private final IdentityHashMap<HippoFileObject, int[]> positions = new IdentityHashMap<>();
+
+    /**
+     * The {@link HippoFileObjectListener} added to every object of {@code content}.
+     */
+    private final HippoFileObjectListener listener = this::changed;
+
+    /**
+     * The objects changed while a transaction commits, published together once it is done, {@code null} outside of a commit.
+     */
+    private Set<HippoFileObject> batched;
+
+    /**
+     * If saving the file also writes an index footer.
+     */
+    private volatile boolean indexed;
+
+    /**
+     * The first {@link HippoFileObject} of each name by its {@link HippoFileObject#key(String) key}, {@code null} until the first lookup.
+     * <p>
+     *     Added objects are put in it, any other change of the objects drops it.
+     * </p>
+     */
+    private volatile ConcurrentHashMap<String, HippoFileObject> names;
+
+    /**
+     * Held while writing to {@code path}, so concurrent saves do not interleave their bytes.
      */
-    private final CopyOnWriteArrayList<HippoFileObject> content = new CopyOnWriteArrayList<>();
+    private final Object writing = new Object();
 
     /**
      * Sets the name of the file.
@@ -75,11 +133,13 @@ public final class HippoFile {
      * @throws IOException  If the creation of {@code path} fails.
      */
     public HippoFile setName(final String name) throws IOException {
-        this.name = name;
+        synchronized (this) {
+            this.name = name;
+            snapshot = new HippoFileSnapshot(name, snapshot.getObjects());
+        }
         if(destination != null){
             this.path = new File(destination, name + ".hippo");
             if(!this.path.exists()){
-                System.out.println(path);
                 if(!path.createNewFile()){
                     throw new IOException("Creation of hippo file failed!");
                 }
@@ -116,27 +176,342 @@ public final class HippoFile {
         return this;
     }
 
+    /**
+     * Sets if saving the file also writes an index footer.
+     * <p>
+     *     The footer maps each object name to its offset, length and checksum,
+     *     so {@link HippoFileService#readObject(String, String, Encrypter...)} can read one object without reading the whole file.
+     *     Encrypted files never have a footer. Files loaded with a footer are indexed already.
+     * </p>
+     * @param indexed  If the file is indexed.
+     * @return  The hippo file.
+     */
+    public HippoFile setIndexed(final boolean indexed) {
+        this.indexed = indexed;
+        return this;
+    }
+
     /**
      * Adds a {@link HippoFileObject} to {@code content}.
      * @param hippoFileObject  The hippo file object to add.
      * @return  The hippo file.
      */
-    public HippoFile addObject(final HippoFileObject hippoFileObject){
+    public synchronized HippoFile addObject(final HippoFileObject hippoFileObject){
+        track(hippoFileObject, snapshot.getObjects().size());
         content.add(hippoFileObject);
+        name(hippoFileObject);
+        snapshot = new HippoFileSnapshot(name, snapshot.getObjects().append(hippoFileObject.snapshot()));
+        return this;
+    }
+
+    /**
+     * Adds every {@link HippoFileObject} of {@code hippoFileObjects} to {@code content} at once.
+     * @param hippoFileObjects  The hippo file objects to add.
+     * @return  The hippo file.
+     */
+    public synchronized HippoFile addObjects(final Collection<HippoFileObject> hippoFileObjects){
+        HippoFileVector objects = snapshot.getObjects();
+        int position = objects.size();
+        for(final HippoFileObject hippoFileObject : hippoFileObjects){
+            track(hippoFileObject, position++);
+            objects = objects.append(hippoFileObject.snapshot());
+            name(hippoFileObject);
+        }
+        content.addAll(hippoFileObjects);
+        snapshot = new HippoFileSnapshot(name, objects);
         return this;
     }
 
+    /**
+     * Atomically replaces all of the {@code content}.
+     * <p>
+     *     {@code function} is given the current objects and returns the new ones, no other change can happen in between.
+     *     The new objects are published in one step, readers holding the list from {@link #getContent()} keep seeing the old objects.
+     *     Returning the given list itself keeps the objects as they are.
+     *     Objects changed by {@code function} itself are published together with the new objects.
+     * </p>
+     * @param function  The function making the new content from the current content.
+     * @return  The hippo file.
+     */
+    public synchronized HippoFile replaceContent(final UnaryOperator<List<HippoFileObject>> function){
+        final List<HippoFileObject> current = Collections.unmodifiableList(content);
+        final Set<HippoFileObject> outer = batched;
+        final Set<HippoFileObject> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+        batched = changed;
+        final List<HippoFileObject> result;
+        try {
+            result = function.apply(current);
+        }finally {
+            batched = outer;
+        }
+        if(result == current){
+            publish(changed);
+            return this;
+        }
+        final CopyOnWriteArrayList<HippoFileObject> replaced = new CopyOnWriteArrayList<>(result);
+        for(final HippoFileObject hippoFileObject : positions.keySet()){
+            hippoFileObject.removeListener(listener);
+        }
+        positions.clear();
+        final Object[] objects = replaced.toArray();
+        for(int i = 0; i < objects.length; i++){
+            final HippoFileObject hippoFileObject = (HippoFileObject) objects[i];
+            track(hippoFileObject, i);
+            objects[i] = hippoFileObject.snapshot();
+        }
+        content = replaced;
+        names = null;
+        snapshot = new HippoFileSnapshot(name, HippoFileVector.of(objects));
+        return this;
+    }
+
+    /**
+     * Removes the first {@link HippoFileObject} named {@code object}.
+     * @param object  The name of the object to remove.
+     * @return  The hippo file.
+     * @throws HippoFileException  If the {@code object} doesn't exist.
+     */
+    public synchronized HippoFile removeObject(final String object) throws HippoFileException {
+        return replaceObject(object, null);
+    }
+
+    /**
+     * Replaces the first {@link HippoFileObject} with the name of {@code hippoFileObject}.
+     * @param hippoFileObject  The new object.
+     * @return  The hippo file.
+     * @throws HippoFileException  If there is no object with that name.
+     */
+    public synchronized HippoFile replaceObject(final HippoFileObject hippoFileObject) throws HippoFileException {
+        return replaceObject(hippoFileObject.getName(), hippoFileObject);
+    }
+
+    /**
+     * Replaces or removes the first {@link HippoFileObject} named {@code object}.
+     * @param object  The name of the object.
+     * @param replacement  The new object, {@code null} to remove it.
+     * @return  The hippo file.
+     * @throws HippoFileException  If the {@code object} doesn't exist.
+     */
+    private HippoFile replaceObject(final String object, final HippoFileObject replacement) throws HippoFileException {
+        final int index = indexOf(content, object);
+        if(index == -1){
+            throw new HippoFileException("An exception was thrown whilst finding object!\n\nDetails:\nFile Name: " + name + "\nObject Name: " + object + "\nFound: null\n\nMaybe the object does not exist?");
+        }
+        return replaceContent(current -> {
+            final ArrayList<HippoFileObject> replaced = new ArrayList<>(current);
+            if(replacement == null){
+                replaced.remove(index);
+            }else{
+                replaced.set(index, replacement);
+            }
+            return replaced;
+        });
+    }
+
+    /**
+     * Begins a {@link HippoFileTransaction}.
+     * <p>
+     *     Its changes are only applied on {@link HippoFileTransaction#commit(Encrypter...)}, all at once, followed by a single save,
+     *     or on {@link HippoFileTransaction#apply()} without saving.
+     * </p>
+     * @return  The transaction.
+     */
+    public HippoFileTransaction begin(){
+        return new HippoFileTransaction(this);
+    }
+
+    /**
+     * Gets an immutable, consistent view of the file as it is now.
+     * <p>
+     *     This is a single read, readers never block or copy. The view never changes, even while objects are added or changed.
+     * </p>
+     * @return  The snapshot.
+     */
+    public HippoFileSnapshot snapshot(){
+        return snapshot;
+    }
+
+    /**
+     * Puts an added {@link HippoFileObject} in {@code names}, unless an object with its name is already there.
+     * @param hippoFileObject  The added object.
+     */
+    private void name(final HippoFileObject hippoFileObject){
+        final ConcurrentHashMap<String, HippoFileObject> current = names;
+        if(current != null){
+            current.putIfAbsent(HippoFileObject.key(hippoFileObject.getName()), hippoFileObject);
+        }
+    }
+
+    /**
+     * Gets {@code names}, building it if there is none.
+     * @return  The names.
+     */
+    private ConcurrentHashMap<String, HippoFileObject> names(){
+        ConcurrentHashMap<String, HippoFileObject> current = names;
+        if(current == null){
+            synchronized (this) {
+                current = names;
+                if(current == null){
+                    current = new ConcurrentHashMap<>();
+                    for(final HippoFileObject hippoFileObject : content){
+                        current.putIfAbsent(HippoFileObject.key(hippoFileObject.getName()), hippoFileObject);
+                    }
+                    names = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Records that {@code hippoFileObject} is at {@code position}, listening for its changes.
+     * @param hippoFileObject  The object.
+     * @param position  Its position in {@code content}.
+     */
+    private void track(final HippoFileObject hippoFileObject, final int position){
+        final int[] current = positions.get(hippoFileObject);
+        if(current == null){
+            hippoFileObject.addListener(listener);
+            positions.put(hippoFileObject, new int[]{position});
+        }else{
+            final int[] added = Arrays.copyOf(current, current.length + 1);
+            added[current.length] = position;
+            positions.put(hippoFileObject, added);
+        }
+    }
+
+    /**
+     * Publishes a new {@code snapshot} holding the current state of {@code hippoFileObject}.
+     * @param hippoFileObject  The changed object.
+     */
+    private synchronized void changed(final HippoFileObject hippoFileObject){
+        if(batched != null){
+            batched.add(hippoFileObject);
+            return;
+        }
+        snapshot = new HippoFileSnapshot(name, update(snapshot.getObjects(), hippoFileObject));
+    }
+
+    /**
+     * Updates {@code objects} with the current state of {@code hippoFileObject}.
+     * @param objects  The object snapshots to update.
+     * @param hippoFileObject  The changed object.
+     * @return  The updated object snapshots.
+     */
+    private HippoFileVector update(final HippoFileVector objects, final HippoFileObject hippoFileObject){
+        final int[] current = positions.get(hippoFileObject);
+        if(current == null){
+            return objects;
+        }
+        final HippoFileObject objectSnapshot = hippoFileObject.snapshot();
+        HippoFileVector updated = objects;
+        for(final int position : current){
+            updated = updated.set(position, objectSnapshot);
+        }
+        return updated;
+    }
+
+    /**
+     * Applies a committed {@link HippoFileTransaction}, publishing a single new {@code snapshot}.
+     * <p>
+     *     Only the {@code snapshot} changes in one step. The element changes run on the live objects before {@code replaced} is swapped in,
+     *     so readers of the objects themselves can see them first.
+     * </p>
+     * @param replaced  The new content, {@code null} if no object was added, replaced or removed.
+     * @param elementChanges  The changes to the elements of the objects.
+     */
+    synchronized void commit(final List<HippoFileObject> replaced, final Runnable elementChanges){
+        final Set<HippoFileObject> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+        batched = changed;
+        try {
+            elementChanges.run();
+        }finally {
+            batched = null;
+        }
+        if(replaced != null){
+            replaceContent(current -> replaced);
+        }else{
+            publish(changed);
+        }
+    }
+
+    /**
+     * Publishes the changes of {@code changed} objects as a single new {@code snapshot}, or adds them to {@code batched} while it is set.
+     * @param changed  The changed objects.
+     */
+    private void publish(final Set<HippoFileObject> changed){
+        if(changed.isEmpty()){
+            return;
+        }
+        if(batched != null){
+            batched.addAll(changed);
+            return;
+        }
+        HippoFileVector objects = snapshot.getObjects();
+        for(final HippoFileObject hippoFileObject : changed){
+            objects = update(objects, hippoFileObject);
+        }
+        snapshot = new HippoFileSnapshot(name, objects);
+    }
+
     /**
      * Saves the hippo file.
+     * <p>
+     *     The cached content of every object is written with a single gathering write.
+     * </p>
      * @return The hippo file.
      * @throws IOException  {@code path} does not exist.
      */
     public HippoFile save() throws IOException {
-        final FileWriter fileWriter = new FileWriter(path);
-        for(final HippoFileObject hippoFileObject : content){
-            fileWriter.write(hippoFileObject.getContent());
+        synchronized (writing) {
+            try(final FileChannel channel = FileChannel.open(path.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)){
+                return save(channel);
+            }
+        }
+    }
+
+    /**
+     * Saves the hippo file to an {@link OutputStream}.
+     * <p>
+     *     No {@code name} or {@code destination} is needed, the stream is flushed but not closed.
+     * </p>
+     * @param outputStream  The stream to write to.
+     * @return  The hippo file.
+     * @throws IOException  If the writing fails.
+     */
+    public HippoFile save(final OutputStream outputStream) throws IOException {
+        save(Channels.newChannel(outputStream));
+        outputStream.flush();
+        return this;
+    }
+
+    /**
+     * Saves the hippo file to a {@link WritableByteChannel}.
+     * <p>
+     *     No {@code name} or {@code destination} is needed, the channel is not closed.
+     * </p>
+     * @param channel  The channel to write to.
+     * @return  The hippo file.
+     * @throws IOException  If the writing fails.
+     */
+    public HippoFile save(final WritableByteChannel channel) throws IOException {
+        final ByteBuffer[] buffers = HippoFileService.convertToBuffers(this);
+        if(channel instanceof GatheringByteChannel){
+            final GatheringByteChannel gatheringChannel = (GatheringByteChannel) channel;
+            int offset = 0;
+            while(offset < buffers.length){
+                gatheringChannel.write(buffers, offset, buffers.length - offset);
+                while(offset < buffers.length && !buffers[offset].hasRemaining()){
+                    offset++;
+                }
+            }
+        }else{
+            for(final ByteBuffer buffer : buffers){
+                while(buffer.hasRemaining()){
+                    channel.write(buffer);
+                }
+            }
         }
-        fileWriter.close();
         return this;
     }
 
@@ -180,13 +555,30 @@ public final class HippoFile {
      * @throws IOException  If {@code path} does not exist.
      */
     public HippoFile encrypt(final Encrypter... encrypters) throws IOException {
-        clear();
+        synchronized (writing) {
+            clear();
+            try(final OutputStream outputStream = new FileOutputStream(path)){
+                return encrypt(outputStream, encrypters);
+            }
+        }
+    }
+
+    /**
+     * Encrypts the file with the specified {@link Encrypter}s and writes it to an {@link OutputStream}.
+     * <p>
+     *     No {@code name} or {@code destination} is needed, the stream is flushed but not closed.
+     * </p>
+     * @param outputStream  The stream to write to.
+     * @param encrypters  All the encrypters used to encrypt the file.
+     * @return  The hippo file.
+     * @throws IOException  If the writing fails.
+     */
+    public HippoFile encrypt(final OutputStream outputStream, final Encrypter... encrypters) throws IOException {
         final String content = HippoFileService.convertToText(this);
-        final FileWriter fileWriter = new FileWriter(path);
         for(final Encrypter encrypter : encrypters){
-            fileWriter.write(encrypter.encrypt(content));
+            outputStream.write(encrypter.encrypt(content).getBytes(StandardCharsets.UTF_8));
         }
-        fileWriter.close();
+        outputStream.flush();
         return this;
     }
 
@@ -197,14 +589,69 @@ public final class HippoFile {
      * @throws HippoFileException  If the {@code object} doesn't exist.
      */
     public HippoFileObject getObject(final String object) throws HippoFileException {
-        for(final HippoFileObject hippoFileObject : content){
-            if(hippoFileObject.getName().equalsIgnoreCase(object)){
-                return hippoFileObject;
-            }
+        final HippoFileObject named = names().get(HippoFileObject.key(object));
+        if(named != null){
+            return named;
+        }
+        final List<HippoFileObject> current = content;
+        final int index = indexOf(current, object);
+        if(index != -1){
+            return current.get(index);
         }
         throw new HippoFileException("An exception was thrown whilst finding object!\n\nDetails:\nFile Name: " + name + "\nObject Name: " + object + "\nFound: null\n\nMaybe the object does not exist?");
     }
 
+    /**
+     * Gets a nested {@link HippoFileObject} by its path.
+     * <p>
+     *     A path is made of names joined with {@code .}, for example {@code server.db.pool}, the first name is an object of the file.
+     *     Each name is found in a hash index of the object before it, so a lookup takes time in the length of the path, not in the size of the file.
+     * </p>
+     * @param path  The path of the object.
+     * @return  The object.
+     * @throws HippoFileException  If there is no object at {@code path}.
+     */
+    public HippoFileObject getObjectPath(final String path) throws HippoFileException {
+        final int dot = path.indexOf('.');
+        if(dot == -1){
+            return getObject(path);
+        }
+        return getObject(path.substring(0, dot)).getObjectPath(path.substring(dot + 1));
+    }
+
+    /**
+     * Gets a {@link HippoFileElement} by its path.
+     * <p>
+     *     The last name of the path is the element, the names before it are objects, for example {@code server.db.pool.size}.
+     * </p>
+     * @param path  The path of the element.
+     * @return  The element.
+     * @throws HippoFileException  If there is no element at {@code path}.
+     * @see #getObjectPath(String)
+     */
+    public HippoFileElement getPath(final String path) throws HippoFileException {
+        final int dot = path.indexOf('.');
+        if(dot == -1){
+            throw new HippoFileException("An exception was thrown whilst finding path!\n\nDetails:\nFile Name: " + name + "\nPath: " + path + "\nFound: null\n\nMaybe the path does not name an object?");
+        }
+        return getObject(path.substring(0, dot)).getPath(path.substring(dot + 1));
+    }
+
+    /**
+     * Gets the index of the first {@link HippoFileObject} named {@code object}.
+     * @param objects  The objects to look through.
+     * @param object  The name of the object.
+     * @return  The index, {@code -1} if there is no such object.
+     */
+    private static int indexOf(final List<HippoFileObject> objects, final String object){
+        for(int i = 0; i < objects.size(); i++){
+            if(objects.get(i).getName().equalsIgnoreCase(object)){
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Gets the {@code name}.
      * @return  The name.
@@ -229,11 +676,24 @@ public final class HippoFile {
         return path;
     }
 
+    /**
+     * Checks if saving the file also writes an index footer.
+     * @return  If the file is indexed.
+     */
+    public boolean isIndexed() {
+        return indexed;
+    }
+
     /**
      * Gets the {@code content}.
+     * <p>
+     *     The list is an unmodifiable view, add objects with {@link #addObject(HippoFileObject)} so they are saved.
+     *     The view is replaced whenever {@link #replaceContent(UnaryOperator)} is used.
+     *     The objects in it are live, use {@link #snapshot()} for a view that does not change while it is read.
+     * </p>
      * @return  The content.
      */
-    public CopyOnWriteArrayList<HippoFileObject> getContent() {
-        return content;
+    public List<HippoFileObject> getContent() {
+        return Collections.unmodifiableList(content);
     }
 }
@@ -0,0 +1,190 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Hippo
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.hippo.systems.hippofile;
+
+import me.hippo.systems.hippofile.exception.HippoFileException;
+import me.hippo.systems.hippofile.object.HippoFileElement;
+import me.hippo.systems.hippofile.object.HippoFileObject;
+
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An immutable, consistent view of a {@link HippoFile} at one point in time.
+ * <p>
+ *     Every object of a snapshot is itself a {@link HippoFileObject#snapshot() snapshot}, so nothing seen through it ever changes.
+ *     Snapshots share their structure with the file, taking one copies nothing.
+ * </p>
+ * @author Hippo
+ * @since 10/19/2026
+ */
+public final class HippoFileSnapshot {
+
+    /**
+     * The name of the file.
+     */
+    private final String name;
+
+    /**
+     * The {@link HippoFileObject} snapshots.
+     */
+    private final HippoFileVector objects;
+
+    /**
+     * An unmodifiable {@link List} view of {@code objects}.
+     */
+    private final List<HippoFileObject> content;
+
+    /**
+     * The first {@link HippoFileObject} of each name by its {@link HippoFileObject#key(String) key}, {@code null} until the first lookup.
+     */
+    private volatile HashMap<String, HippoFileObject> names;
+
+    /**
+     * Creates a new {@link HippoFileSnapshot}.
+     * @param name  The name of the file.
+     * @param objects  The object snapshots.
+     */
+    HippoFileSnapshot(final String name, final HippoFileVector objects) {
+        this.name = name;
+        this.objects = objects;
+        this.content = new Content(objects);
+    }
+
+    /**
+     * Gets a {@link HippoFileObject} by its name.
+     * @param object  The {@code object} to get.
+     * @return  The {@code object}.
+     * @throws HippoFileException  If the {@code object} doesn't exist.
+     */
+    public HippoFileObject getObject(final String object) throws HippoFileException {
+        HashMap<String, HippoFileObject> current = names;
+        if(current == null){
+            current = new HashMap<>(content.size() * 2);
+            for(final HippoFileObject hippoFileObject : content){
+                current.putIfAbsent(HippoFileObject.key(hippoFileObject.getName()), hippoFileObject);
+            }
+            names = current;
+        }
+        final HippoFileObject named = current.get(HippoFileObject.key(object));
+        if(named != null){
+            return named;
+        }
+        throw new HippoFileException("An exception was thrown whilst finding object!\n\nDetails:\nFile Name: " + name + "\nObject Name: " + object + "\nFound: null\n\nMaybe the object does not exist?");
+    }
+
+    /**
+     * Gets a nested {@link HippoFileObject} by its path, for example {@code server.db.pool}.
+     * @param path  The path of the object.
+     * @return  The object.
+     * @throws HippoFileException  If there is no object at {@code path}.
+     * @see HippoFile#getObjectPath(String)
+     */
+    public HippoFileObject getObjectPath(final String path) throws HippoFileException {
+        final int dot = path.indexOf('.');
+        if(dot == -1){
+            return getObject(path);
+        }
+        return getObject(path.substring(0, dot)).getObjectPath(path.substring(dot + 1));
+    }
+
+    /**
+     * Gets a {@link HippoFileElement} by its path, for example {@code server.db.pool.size}.
+     * @param path  The path of the element.
+     * @return  The element.
+     * @throws HippoFileException  If there is no element at {@code path}.
+     * @see HippoFile#getPath(String)
+     */
+    public HippoFileElement getPath(final String path) throws HippoFileException {
+        final int dot = path.indexOf('.');
+        if(dot == -1){
+            throw new HippoFileException("An exception was thrown whilst finding path!\n\nDetails:\nFile Name: " + name + "\nPath: " + path + "\nFound: null\n\nMaybe the path does not name an object?");
+        }
+        return getObject(path.substring(0, dot)).getPath(path.substring(dot + 1));
+    }
+
+    /**
+     * Gets the {@code name}.
+     * @return  The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the {@code content}.
+     * @return  The content, an unmodifiable list.
+     */
+    public List<HippoFileObject> getContent() {
+        return content;
+    }
+
+    /**
+     * Gets the {@code objects}.
+     * @return  The objects.
+     */
+    HippoFileVector getObjects() {
+        return objects;
+    }
+
+    /**
+     * An unmodifiable {@link List} view of a {@link HippoFileVector}.
+     */
+    private static final class Content extends AbstractList<HippoFileObject> implements RandomAccess {
+
+        /**
+         * The viewed vector.
+         */
+        private final HippoFileVector objects;
+
+        /**
+         * Creates a new {@link Content}.
+         * @param objects  The viewed vector.
+         */
+        private Content(final HippoFileVector objects) {
+            this.objects = objects;
+        }
+
+        /**
+         * @inheritDoc
+         * @see AbstractList#get(int)
+         */
+        @Override
+        public HippoFileObject get(final int index) {
+            return (HippoFileObject) objects.get(index);
+        }
+
+        /**
+         * @inheritDoc
+         * @see AbstractList#size()
+         */
+        @Override
+        public int size() {
+            return objects.size();
+        }
+    }
+}
@@ -0,0 +1,351 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Hippo
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.hippo.systems.hippofile;
+
+import me.hippo.systems.hippofile.encrypt.Encrypter;
+import me.hippo.systems.hippofile.exception.HippoFileException;
+import me.hippo.systems.hippofile.object.HippoFileElement;
+import me.hippo.systems.hippofile.object.HippoFileElements;
+import me.hippo.systems.hippofile.object.HippoFileObject;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A batch of changes to a {@link HippoFile}, applied all at once.
+ * <p>
+ *     Nothing is changed until {@link #commit(Encrypter...)} or {@link #apply()}. Both first check every change, if one of them can not be applied nothing is.
+ *     Then the changes are applied and published as a single {@link HippoFile#snapshot() snapshot}, so snapshot readers see all of the batch or none of it.
+ *     Only snapshot readers get that guarantee, element changes are applied to the live objects one object at a time before added, replaced and removed objects are swapped in,
+ *     so a reader going through {@link HippoFile#getObject(String)} can see part of a batch.
+ *     A commit also saves the file once if it has a {@code path}, encrypted with the given encrypters, applying leaves saving to the caller.
+ * </p>
+ * <p>
+ *     Objects and elements are found by name, ignoring case, like {@link HippoFile#getObject(String)}.
+ *     A transaction is used by one thread, and can only be committed or rolled back once.
+ * </p>
+ * @author Hippo
+ * @since 10/19/2026
+ */
+public final class HippoFileTransaction implements AutoCloseable {
+
+    /**
+     * The {@link HippoFile} being changed.
+     */
+    private final HippoFile hippoFile;
+
+    /**
+     * The {@link Change}s, in the order they were made.
+     */
+    private final ArrayList<Change> changes = new ArrayList<>();
+
+    /**
+     * If the transaction was committed or rolled back.
+     */
+    private boolean done;
+
+    /**
+     * Creates a new {@link HippoFileTransaction}.
+     * @param hippoFile  The file to change.
+     */
+    HippoFileTransaction(final HippoFile hippoFile) {
+        this.hippoFile = hippoFile;
+    }
+
+    /**
+     * Adds a {@link HippoFileObject}.
+     * @param hippoFileObject  The object to add.
+     * @return  The transaction.
+     */
+    public HippoFileTransaction addObject(final HippoFileObject hippoFileObject) {
+        return change(new Change(Kind.ADD_OBJECT, hippoFileObject.getName(), null, hippoFileObject, null));
+    }
+
+    /**
+     * Replaces the first {@link HippoFileObject} with the name of {@code hippoFileObject}.
+     * @param hippoFileObject  The new object.
+     * @return  The transaction.
+     */
+    public HippoFileTransaction replaceObject(final HippoFileObject hippoFileObject) {
+        return change(new Change(Kind.REPLACE_OBJECT, hippoFileObject.getName(), null, hippoFileObject, null));
+    }
+
+    /**
+     * Removes the first {@link HippoFileObject} named {@code object}.
+     * @param object  The name of the object.
+     * @return  The transaction.
+     */
+    public HippoFileTransaction removeObject(final String object) {
+        return change(new Change(Kind.REMOVE_OBJECT, object, null, null, null));
+    }
+
+    /**
+     * Adds a {@link HippoFileElement} to the first object named {@code object}.
+     * @param object  The name of the object.
+     * @param element  The element to add.
+     * @return  The transaction.
+     */
+    public HippoFileTransaction addElement(final String object, final HippoFileElement element) {
+        return change(new Change(Kind.ADD_ELEMENT, object, element.getName(), null, element));
+    }
+
+    /**
+     * Replaces the first {@link HippoFileElement} with the name of {@code element} in the first object named {@code object}.
+     * @param object  The name of the object.
+     * @param element  The new element.
+     * @return  The transaction.
+     */
+    public HippoFileTransaction replaceElement(final String object, final HippoFileElement element) {
+        return change(new Change(Kind.REPLACE_ELEMENT, object, element.getName(), null, element));
+    }
+
+    /**
+     * Removes the first {@link HippoFileElement} named {@code element} from the first object named {@code object}.
+     * @param object  The name of the object.
+     * @param element  The name of the element.
+     * @return  The transaction.
+     */
+    public HippoFileTransaction removeElement(final String object, final String element) {
+        return change(new Change(Kind.REMOVE_ELEMENT, object, element, null, null));
+    }
+
+    /**
+     * Applies every change at once, then saves the file if it has a {@code path}.
+     * <p>
+     *     Without encrypters the file is saved in plain text with {@link HippoFile#save()}, otherwise it is written with {@link HippoFile#encrypt(Encrypter...)}.
+     *     A file loaded with encrypters has to be committed with the same ones, or it is rewritten in plain text.
+     * </p>
+     * @param encrypters  The encrypters to write the file with, none to save it in plain text.
+     * @return  The hippo file.
+     * @throws HippoFileException  If a change can not be applied, the file is left untouched.
+     * @throws IOException  If saving the file fails, the changes stay applied in memory.
+     * @throws IllegalStateException  If the transaction was already committed or rolled back.
+     * @see #apply()
+     */
+    public HippoFile commit(final Encrypter... encrypters) throws HippoFileException, IOException {
+        apply();
+        if(hippoFile.getPath() != null){
+            if(encrypters.length == 0){
+                hippoFile.save();
+            }else{
+                hippoFile.encrypt(encrypters);
+            }
+        }
+        return hippoFile;
+    }
+
+    /**
+     * Applies every change at once without saving the file.
+     * <p>
+     *     Objects changed directly while the changes are applied keep those changes, the transaction's element changes are applied on top of them.
+     * </p>
+     * @return  The hippo file.
+     * @throws HippoFileException  If a change can not be applied, the file is left untouched.
+     * @throws IllegalStateException  If the transaction was already committed or rolled back.
+     */
+    public HippoFile apply() throws HippoFileException {
+        checkOpen();
+        done = true;
+        synchronized (hippoFile) {
+            final ArrayList<HippoFileObject> working = new ArrayList<>(hippoFile.getContent());
+            final HashMap<String, ArrayDeque<Integer>> positions = new HashMap<>();
+            for(int i = 0; i < working.size(); i++){
+                positions.computeIfAbsent(HippoFileObject.key(working.get(i).getName()), key -> new ArrayDeque<>()).add(i);
+            }
+            final IdentityHashMap<HippoFileObject, List<HippoFileElement>> elements = new IdentityHashMap<>();
+            final IdentityHashMap<HippoFileObject, List<Change>> elementChanges = new IdentityHashMap<>();
+            boolean structural = false;
+
+            for(final Change change : changes){
+                if(change.kind == Kind.ADD_OBJECT){
+                    positions.computeIfAbsent(HippoFileObject.key(change.object), key -> new ArrayDeque<>()).add(working.size());
+                    working.add(change.hippoFileObject);
+                    structural = true;
+                    continue;
+                }
+                final ArrayDeque<Integer> named = positions.get(HippoFileObject.key(change.object));
+                if(named == null || named.isEmpty()){
+                    throw new HippoFileException("An exception was thrown whilst committing a transaction!\n\nDetails:\nFile Name: " + hippoFile.getName() + "\nObject Name: " + change.object + "\nFound: null\n\nMaybe the object does not exist?");
+                }
+                if(change.kind == Kind.REPLACE_OBJECT){
+                    working.set(named.peekFirst(), change.hippoFileObject);
+                    structural = true;
+                }else if(change.kind == Kind.REMOVE_OBJECT){
+                    working.set(named.pollFirst(), null);
+                    structural = true;
+                }else{
+                    final HippoFileObject hippoFileObject = working.get(named.peekFirst());
+                    if(hippoFileObject.isSnapshot()){
+                        throw new HippoFileException("An exception was thrown whilst committing a transaction!\n\nDetails:\nObject Name: " + change.object + "\n\nMaybe the object is a snapshot?");
+                    }
+                    final List<HippoFileElement> objectElements = elements.computeIfAbsent(hippoFileObject, key -> new ArrayList<>(key.getElements()));
+                    if(!change.apply(objectElements)){
+                        throw new HippoFileException("An exception was thrown whilst committing a transaction!\n\nDetails:\nObject Name: " + change.object + "\nElement Name: " + change.element + "\nFound: null\n\nMaybe the element does not exist?");
+                    }
+                    elementChanges.computeIfAbsent(hippoFileObject, key -> new ArrayList<>()).add(change);
+                }
+            }
+
+            final ArrayList<HippoFileObject> replaced = new ArrayList<>(working.size());
+            for(final HippoFileObject hippoFileObject : working){
+                if(hippoFileObject != null){
+                    replaced.add(hippoFileObject);
+                }
+            }
+            final Set<HippoFileObject> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+            kept.addAll(replaced);
+            hippoFile.commit(structural ? replaced : null, () -> {
+                for(final Map.Entry<HippoFileObject, List<Change>> entry : elementChanges.entrySet()){
+                    if(kept.contains(entry.getKey())){
+                        entry.getKey().replaceElements(current -> {
+                            final ArrayList<HippoFileElement> edited = new ArrayList<>(current);
+                            for(final Change change : entry.getValue()){
+                                change.apply(edited);
+                            }
+                            return edited;
+                        });
+                    }
+                }
+            });
+        }
+        return hippoFile;
+    }
+
+    /**
+     * Discards every change.
+     * @throws IllegalStateException  If the transaction was already committed or rolled back.
+     */
+    public void rollback() {
+        checkOpen();
+        done = true;
+        changes.clear();
+    }
+
+    /**
+     * Rolls the transaction back if it was neither committed nor rolled back.
+     */
+    @Override
+    public void close() {
+        if(!done){
+            rollback();
+        }
+    }
+
+    /**
+     * Records a {@link Change}.
+     * @param change  The change.
+     * @return  The transaction.
+     * @throws IllegalStateException  If the transaction was already committed or rolled back.
+     */
+    private HippoFileTransaction change(final Change change) {
+        checkOpen();
+        changes.add(change);
+        return this;
+    }
+
+    /**
+     * Makes sure the transaction can still be used.
+     * @throws IllegalStateException  If the transaction was already committed or rolled back.
+     */
+    private void checkOpen() {
+        if(done){
+            throw new IllegalStateException("The hippo file transaction was already committed or rolled back!");
+        }
+    }
+
+    /**
+     * The kinds of {@link Change}.
+     */
+    private enum Kind {
+        ADD_OBJECT, REPLACE_OBJECT, REMOVE_OBJECT, ADD_ELEMENT, REPLACE_ELEMENT, REMOVE_ELEMENT
+    }
+
+    /**
+     * One change of a {@link HippoFileTransaction}.
+     */
+    private static final class Change {
+
+        /**
+         * The kind of change.
+         */
+        private final Kind kind;
+
+        /**
+         * The name of the object.
+         */
+        private final String object;
+
+        /**
+         * The name of the element, {@code null} for object changes.
+         */
+        private final String element;
+
+        /**
+         * The added or new object, {@code null} for other changes.
+         */
+        private final HippoFileObject hippoFileObject;
+
+        /**
+         * The added or new element, {@code null} for other changes.
+         */
+        private final HippoFileElement hippoFileElement;
+
+        /**
+         * Creates a new {@link Change}.
+         * @param kind  The kind of change.
+         * @param object  The name of the object.
+         * @param element  The name of the element.
+         * @param hippoFileObject  The added or new object.
+         * @param hippoFileElement  The added or new element.
+         */
+        private Change(final Kind kind, final String object, final String element, final HippoFileObject hippoFileObject, final HippoFileElement hippoFileElement) {
+            this.kind = kind;
+            this.object = object;
+            this.element = element;
+            this.hippoFileObject = hippoFileObject;
+            this.hippoFileElement = hippoFileElement;
+        }
+
+        /**
+         * Applies this element change to {@code elements}.
+         * @param elements  The elements to change.
+         * @return  If the change applied, replacing or removing a missing element does not.
+         */
+        private boolean apply(final List<HippoFileElement> elements) {
+            if(kind == Kind.ADD_ELEMENT){
+                elements.add(hippoFileElement);
+                return true;
+            }
+            return HippoFileElements.edit(elements, element, kind == Kind.REPLACE_ELEMENT ? hippoFileElement : null);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Hippo
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.hippo.systems.hippofile;
+
+import java.util.Arrays;
+
+/**
+ * An immutable vector sharing its structure between versions.
+ * <p>
+ *     Items are stored in a trie of 32 wide nodes. Setting or appending an item copies only the path to it,
+ *     so each version costs {@code O(log32 n)} while every older version stays valid and unchanged.
+ * </p>
+ * @author Hippo
+ * @since 10/19/2026
+ */
+final class HippoFileVector {
+
+    /**
+     * The amount of index bits used by each level of the trie.
+     */
+    private static final int BITS = 5;
+
+    /**
+     * The mask of the index bits of a level.
+     */
+    private static final int MASK = (1 << BITS) - 1;
+
+    /**
+     * The empty vector.
+     */
+    static final HippoFileVector EMPTY = new HippoFileVector(0, 0, new Object[0]);
+
+    /**
+     * The amount of items.
+     */
+    private final int size;
+
+    /**
+     * The amount of bits to shift an index by to get its slot in the root.
+     */
+    private final int shift;
+
+    /**
+     * The root node.
+     */
+    private final Object[] root;
+
+    /**
+     * Creates a new {@link HippoFileVector}.
+     * @param size  The amount of items.
+     * @param shift  The shift of the root.
+     * @param root  The root node.
+     */
+    private HippoFileVector(final int size, final int shift, final Object[] root) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+    }
+
+    /**
+     * Gets the amount of items.
+     * @return  The size.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets an item.
+     * @param index  The index of the item.
+     * @return  The item.
+     * @throws IndexOutOfBoundsException  If there is no item at {@code index}.
+     */
+    Object get(final int index) {
+        if(index < 0 || index >= size){
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        Object[] node = root;
+        for(int level = shift; level > 0; level -= BITS){
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node[index & MASK];
+    }
+
+    /**
+     * Makes a new version with the item at {@code index} replaced.
+     * @param index  The index of the item.
+     * @param item  The new item.
+     * @return  The new version.
+     * @throws IndexOutOfBoundsException  If there is no item at {@code index}.
+     */
+    HippoFileVector set(final int index, final Object item) {
+        if(index < 0 || index >= size){
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return new HippoFileVector(size, shift, set(root, shift, index, item));
+    }
+
+    /**
+     * Makes a new version with {@code item} added at the end.
+     * @param item  The item to add.
+     * @return  The new version.
+     */
+    HippoFileVector append(final Object item) {
+        if(size == 1 << (shift + BITS)){
+            return new HippoFileVector(size + 1, shift + BITS, set(new Object[]{root}, shift + BITS, size, item));
+        }
+        return new HippoFileVector(size + 1, shift, set(root, shift, size, item));
+    }
+
+    /**
+     * Makes a vector of {@code items}.
+     * @param items  The items.
+     * @return  The vector.
+     */
+    static HippoFileVector of(final Object[] items) {
+        if(items.length == 0){
+            return EMPTY;
+        }
+        Object[] nodes = items;
+        int shift = 0;
+        while(true){
+            final Object[] parents = new Object[(nodes.length + MASK) >>> BITS];
+            for(int i = 0; i < parents.length; i++){
+                parents[i] = Arrays.copyOfRange(nodes, i << BITS, Math.min(nodes.length, (i + 1) << BITS));
+            }
+            if(parents.length == 1){
+                return new HippoFileVector(items.length, shift, (Object[]) parents[0]);
+            }
+            nodes = parents;
+            shift += BITS;
+        }
+    }
+
+    /**
+     * Copies the path to {@code index}, setting the item at its end.
+     * @param node  The node to copy.
+     * @param level  The shift of {@code node}.
+     * @param index  The index of the item.
+     * @param item  The item.
+     * @return  The copied node.
+     */
+    private static Object[] set(final Object[] node, final int level, final int index, final Object item) {
+        final int slot = (index >>> level) & MASK;
+        final Object[] copy = Arrays.copyOf(node, Math.max(node.length, slot + 1));
+        if(level == 0){
+            copy[slot] = item;
+        }else{
+            copy[slot] = set(slot < node.length ? (Object[]) node[slot] : new Object[0], level - BITS, index, item);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,646 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Hippo
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.hippo.systems.hippofile.mapper;
+
+import me.hippo.systems.hippofile.encrypt.Encrypter;
+import me.hippo.systems.hippofile.exception.HippoFileException;
+import me.hippo.systems.hippofile.object.HippoFileElement;
+import me.hippo.systems.hippofile.object.HippoFileElementVisitor;
+import me.hippo.systems.hippofile.object.HippoFileObject;
+import me.hippo.systems.hippofile.service.HippoFileService;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+
+/**
+ * Binds {@link HippoFileObject}s to plain Java classes.
+ * <p>
+ *     Every non-static, non-transient field of the class and its superclasses is bound to the element with the same name, ignoring case.
+ *     Only the first value of an element is used, and fields without an element keep the value given by the no-argument constructor.
+ *     Supported field types are the primitives, their wrappers, {@link String} and enums. Nested objects are skipped.
+ * </p>
+ * <p>
+ *     The accessors of a class are looked up once and cached. Reading goes straight from the encoded bytes into the fields,
+ *     without creating any {@link HippoFileElement}s on the way.
+ * </p>
+ * @author Hippo
+ * @since 10/19/2026
+ */
+public final class HippoFileMapper {
+
+    /**
+     * The cached {@link Binding} of every class mapped so far.
+     */
+    private static final ClassValue<Binding> BINDINGS = new ClassValue<Binding>() {
+        @Override
+        protected Binding computeValue(final Class<?> type) {
+            return new Binding(type);
+        }
+    };
+
+    /**
+     * Reads {@code object} into a new instance of {@code type}.
+     * @param object  The object to read.
+     * @param type  The class to bind to.
+     * @param <T>  The type to bind to.
+     * @return  The new instance.
+     * @throws HippoFileException  If a value does not fit its field.
+     * @throws IllegalArgumentException  If {@code type} can not be bound.
+     */
+    public static <T> T read(final HippoFileObject object, final Class<T> type) throws HippoFileException {
+        final ByteBuffer encoded = object.getEncodedContent();
+        final Reader reader = new Reader(BINDINGS.get(type));
+        final Object target = reader.begin();
+        HippoFileObject.visit(encoded, encoded.position(), encoded.limit() - 1, reader);
+        return type.cast(target);
+    }
+
+    /**
+     * Reads every object of {@code buffer} into new instances of {@code type}.
+     * <p>
+     *     The objects are streamed from the buffer, no {@link HippoFileObject}s are created.
+     *     If several objects share a name, the first one wins.
+     * </p>
+     * @param buffer  The content to read, from its position to its limit.
+     * @param type  The class to bind to.
+     * @param encrypters  The encrypters needed to decrypt the content.
+     * @param <T>  The type to bind to.
+     * @return  The instances by object name, in the order of the content.
+     * @throws HippoFileException  If an object is malformed or a value does not fit its field.
+     * @throws IllegalArgumentException  If {@code type} can not be bound.
+     */
+    public static <T> LinkedHashMap<String, T> read(final ByteBuffer buffer, final Class<T> type, final Encrypter... encrypters) throws HippoFileException {
+        final LinkedHashMap<String, T> values = new LinkedHashMap<>();
+        final Reader reader = new Reader(BINDINGS.get(type));
+        HippoFileService.scanObjects(HippoFileService.decrypt(buffer, encrypters), (source, from, to) -> {
+            final Object target = reader.begin();
+            final String name = HippoFileObject.visit(source, from, to, reader);
+            if(!values.containsKey(name)){
+                values.put(name, type.cast(target));
+            }
+        });
+        return values;
+    }
+
+    /**
+     * @see #read(ByteBuffer, Class, Encrypter...)
+     * @throws IOException  If the reading of the file fails.
+     */
+    public static <T> LinkedHashMap<String, T> read(final File path, final Class<T> type, final Encrypter... encrypters) throws IOException, HippoFileException {
+        return read(ByteBuffer.wrap(Files.readAllBytes(path.toPath())), type, encrypters);
+    }
+
+    /**
+     * Writes {@code value} to a new {@link HippoFileObject}.
+     * <p>
+     *     Fields holding {@code null} are left out.
+     * </p>
+     * @param name  The name of the object.
+     * @param value  The value to write.
+     * @return  The new object.
+     * @throws IllegalArgumentException  If the class of {@code value} can not be bound.
+     */
+    public static HippoFileObject write(final String name, final Object value) {
+        final Property[] properties = BINDINGS.get(value.getClass()).properties;
+        final ArrayList<HippoFileElement> elements = new ArrayList<>(properties.length);
+        for(final Property property : properties){
+            final Object propertyValue = property.get(value);
+            if(propertyValue != null){
+                elements.add(new HippoFileElement(property.name, propertyValue instanceof Enum ? ((Enum<?>) propertyValue).name() : propertyValue));
+            }
+        }
+        final HippoFileObject hippoFileObject = new HippoFileObject(name);
+        hippoFileObject.replaceElements(current -> elements);
+        return hippoFileObject;
+    }
+
+    /**
+     * The kinds of fields that can be bound.
+     */
+    private enum Kind {
+        BOOLEAN, BYTE, SHORT, CHAR, INT, LONG, FLOAT, DOUBLE, STRING, ENUM;
+
+        /**
+         * Gets the kind of {@code type}.
+         * @param type  The type of a field.
+         * @return  The kind, or {@code null} if {@code type} can not be bound.
+         */
+        private static Kind of(final Class<?> type) {
+            if(type == boolean.class || type == Boolean.class){
+                return BOOLEAN;
+            }
+            if(type == byte.class || type == Byte.class){
+                return BYTE;
+            }
+            if(type == short.class || type == Short.class){
+                return SHORT;
+            }
+            if(type == char.class || type == Character.class){
+                return CHAR;
+            }
+            if(type == int.class || type == Integer.class){
+                return INT;
+            }
+            if(type == long.class || type == Long.class){
+                return LONG;
+            }
+            if(type == float.class || type == Float.class){
+                return FLOAT;
+            }
+            if(type == double.class || type == Double.class){
+                return DOUBLE;
+            }
+            if(type == String.class){
+                return STRING;
+            }
+            if(type.isEnum()){
+                return ENUM;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * The cached accessors of a class.
+     */
+    private static final class Binding {
+
+        /**
+         * The type being bound.
+         */
+        private final Class<?> type;
+
+        /**
+         * Creates a new instance of the type, typed {@code ()Object}.
+         */
+        private final MethodHandle constructor;
+
+        /**
+         * The bound fields.
+         */
+        private final Property[] properties;
+
+        /**
+         * Looks up the accessors of {@code type}.
+         * @param type  The type to bind.
+         * @throws IllegalArgumentException  If {@code type} has no no-argument constructor or has a field that can not be bound.
+         */
+        private Binding(final Class<?> type) {
+            this.type = type;
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            try {
+                final Constructor<?> declared = type.getDeclaredConstructor();
+                declared.setAccessible(true);
+                this.constructor = lookup.unreflectConstructor(declared).asType(MethodType.methodType(Object.class));
+            }catch (NoSuchMethodException | IllegalAccessException | RuntimeException e){
+                throw new IllegalArgumentException("An exception was thrown whilst binding class!\n\nDetails:\nClass: " + type.getName() + "\n\nMaybe the class has no accessible no-argument constructor?", e);
+            }
+            final ArrayList<Property> properties = new ArrayList<>();
+            for(Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()){
+                for(final Field field : current.getDeclaredFields()){
+                    if((field.getModifiers() & (Modifier.STATIC | Modifier.TRANSIENT)) == 0 && !field.isSynthetic()){
+                        properties.add(new Property(lookup, field));
+                    }
+                }
+            }
+            this.properties = properties.toArray(new Property[0]);
+        }
+
+        /**
+         * Finds the property named by the bytes of {@code source} between {@code from} and {@code to}, ignoring case.
+         * @param source  The buffer holding the name.
+         * @param from  The index of the first byte of the name.
+         * @param to  The index after the last byte of the name.
+         * @return  The index of the property, or {@code -1} if there is none.
+         */
+        private int find(final ByteBuffer source, final int from, final int to) {
+            outer:
+            for(int i = 0; i < properties.length; i++){
+                final byte[] key = properties[i].key;
+                if(key.length != to - from){
+                    continue;
+                }
+                for(int j = 0; j < key.length; j++){
+                    byte b = source.get(from + j);
+                    if(b >= 'A' && b <= 'Z'){
+                        b += 'a' - 'A';
+                    }
+                    if(b != key[j]){
+                        continue outer;
+                    }
+                }
+                return i;
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * A bound field.
+     */
+    private static final class Property {
+
+        /**
+         * The name of the field, used as the element name.
+         */
+        private final String name;
+
+        /**
+         * The lower case UTF-8 encoded name, used to match element names without decoding them.
+         */
+        private final byte[] key;
+
+        /**
+         * The kind of the field.
+         */
+        private final Kind kind;
+
+        /**
+         * The type of the field.
+         */
+        private final Class<?> type;
+
+        /**
+         * Sets the field, typed {@code (Object, type)void} for primitives and {@code (Object, Object)void} otherwise.
+         */
+        private final MethodHandle setter;
+
+        /**
+         * Gets the field, typed {@code (Object)Object}.
+         */
+        private final MethodHandle getter;
+
+        /**
+         * Looks up the accessors of {@code field}.
+         * @param lookup  The lookup to use.
+         * @param field  The field to bind.
+         * @throws IllegalArgumentException  If the field can not be bound.
+         */
+        private Property(final MethodHandles.Lookup lookup, final Field field) {
+            this.name = field.getName();
+            this.key = name.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+            this.type = field.getType();
+            this.kind = Kind.of(type);
+            if(kind == null){
+                throw new IllegalArgumentException("An exception was thrown whilst binding field!\n\nDetails:\nClass: " + field.getDeclaringClass().getName() + "\nField Name: " + name + "\nField Type: " + type.getName() + "\n\nMaybe the type is not supported?");
+            }
+            try {
+                field.setAccessible(true);
+                final MethodHandle setter = lookup.unreflectSetter(field);
+                this.setter = setter.asType(MethodType.methodType(void.class, Object.class, type.isPrimitive() ? type : Object.class));
+                this.getter = lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+            }catch (IllegalAccessException | RuntimeException e){
+                throw new IllegalArgumentException("An exception was thrown whilst binding field!\n\nDetails:\nClass: " + field.getDeclaringClass().getName() + "\nField Name: " + name + "\n\nMaybe the field is not accessible?", e);
+            }
+        }
+
+        /**
+         * Sets the field of {@code target} to the value held by the bytes of {@code source} between {@code from} and {@code to}.
+         * @param target  The instance to set the field of.
+         * @param source  The buffer holding the value.
+         * @param from  The index of the first byte of the value.
+         * @param to  The index after the last byte of the value.
+         * @throws HippoFileException  If the value does not fit the field.
+         */
+        private void set(final Object target, final ByteBuffer source, final int from, final int to) throws HippoFileException {
+            try {
+                if(type.isPrimitive()){
+                    switch(kind){
+                        case BOOLEAN:
+                            setter.invokeExact(target, parseBoolean(source, from, to));
+                            return;
+                        case BYTE:
+                            setter.invokeExact(target, (byte) parseLong(source, from, to, Byte.MIN_VALUE, Byte.MAX_VALUE));
+                            return;
+                        case SHORT:
+                            setter.invokeExact(target, (short) parseLong(source, from, to, Short.MIN_VALUE, Short.MAX_VALUE));
+                            return;
+                        case CHAR:
+                            setter.invokeExact(target, parseChar(source, from, to));
+                            return;
+                        case INT:
+                            setter.invokeExact(target, (int) parseLong(source, from, to, Integer.MIN_VALUE, Integer.MAX_VALUE));
+                            return;
+                        case LONG:
+                            setter.invokeExact(target, parseLong(source, from, to, Long.MIN_VALUE, Long.MAX_VALUE));
+                            return;
+                        case FLOAT:
+                            setter.invokeExact(target, (float) parseDouble(source, from, to));
+                            return;
+                        default:
+                            setter.invokeExact(target, parseDouble(source, from, to));
+                            return;
+                    }
+                }
+                setter.invokeExact(target, parse(source, from, to));
+            }catch (HippoFileException | RuntimeException | Error e){
+                throw e;
+            }catch (Throwable throwable){
+                throw new IllegalStateException(throwable);
+            }
+        }
+
+        /**
+         * Parses the value held by the bytes of {@code source} between {@code from} and {@code to} into a wrapper, {@link String} or enum.
+         * @param source  The buffer holding the value.
+         * @param from  The index of the first byte of the value.
+         * @param to  The index after the last byte of the value.
+         * @return  The parsed value.
+         * @throws HippoFileException  If the value does not fit the field.
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object parse(final ByteBuffer source, final int from, final int to) throws HippoFileException {
+            switch(kind){
+                case BOOLEAN:
+                    return parseBoolean(source, from, to);
+                case BYTE:
+                    return (byte) parseLong(source, from, to, Byte.MIN_VALUE, Byte.MAX_VALUE);
+                case SHORT:
+                    return (short) parseLong(source, from, to, Short.MIN_VALUE, Short.MAX_VALUE);
+                case CHAR:
+                    return parseChar(source, from, to);
+                case INT:
+                    return (int) parseLong(source, from, to, Integer.MIN_VALUE, Integer.MAX_VALUE);
+                case LONG:
+                    return parseLong(source, from, to, Long.MIN_VALUE, Long.MAX_VALUE);
+                case FLOAT:
+                    return (float) parseDouble(source, from, to);
+                case DOUBLE:
+                    return parseDouble(source, from, to);
+                case STRING:
+                    return HippoFileObject.decode(source, from, to);
+                default:
+                    final String value = HippoFileObject.decode(source, from, to);
+                    try {
+                        return Enum.valueOf((Class) type, value);
+                    }catch (IllegalArgumentException e){
+                        throw invalid(value);
+                    }
+            }
+        }
+
+        /**
+         * Parses a {@code boolean} the way {@link Boolean#parseBoolean(String)} does.
+         * @param source  The buffer holding the value.
+         * @param from  The index of the first byte of the value.
+         * @param to  The index after the last byte of the value.
+         * @return  {@code true} if the value is {@code true}, ignoring case.
+         */
+        private static boolean parseBoolean(final ByteBuffer source, final int from, final int to) {
+            if(to - from != 4){
+                return false;
+            }
+            return (source.get(from) | 0x20) == 't' && (source.get(from + 1) | 0x20) == 'r' && (source.get(from + 2) | 0x20) == 'u' && (source.get(from + 3) | 0x20) == 'e';
+        }
+
+        /**
+         * Parses a decimal integer straight from its ASCII bytes.
+         * @param source  The buffer holding the value.
+         * @param from  The index of the first byte of the value.
+         * @param to  The index after the last byte of the value.
+         * @param min  The smallest value the field can hold.
+         * @param max  The largest value the field can hold.
+         * @return  The parsed value.
+         * @throws HippoFileException  If the value is not an integer between {@code min} and {@code max}.
+         */
+        private long parseLong(final ByteBuffer source, final int from, final int to, final long min, final long max) throws HippoFileException {
+            int index = from;
+            boolean negative = false;
+            if(index < to && (source.get(index) == '-' || source.get(index) == '+')){
+                negative = source.get(index) == '-';
+                index++;
+            }
+            if(index == to){
+                throw invalid(HippoFileObject.decode(source, from, to));
+            }
+            final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+            long result = 0;
+            for(; index < to; index++){
+                final int digit = source.get(index) - '0';
+                if(digit < 0 || digit > 9 || result < limit / 10){
+                    throw invalid(HippoFileObject.decode(source, from, to));
+                }
+                result *= 10;
+                if(result < limit + digit){
+                    throw invalid(HippoFileObject.decode(source, from, to));
+                }
+                result -= digit;
+            }
+            result = negative ? result : -result;
+            if(result < min || result > max){
+                throw invalid(HippoFileObject.decode(source, from, to));
+            }
+            return result;
+        }
+
+        /**
+         * Parses a {@code char}, the value must be exactly one character.
+         * @param source  The buffer holding the value.
+         * @param from  The index of the first byte of the value.
+         * @param to  The index after the last byte of the value.
+         * @return  The parsed value.
+         * @throws HippoFileException  If the value is not one character.
+         */
+        private char parseChar(final ByteBuffer source, final int from, final int to) throws HippoFileException {
+            if(to - from == 1 && source.get(from) >= 0){
+                return (char) source.get(from);
+            }
+            final String value = HippoFileObject.decode(source, from, to);
+            if(value.length() != 1){
+                throw invalid(value);
+            }
+            return value.charAt(0);
+        }
+
+        /**
+         * Parses a {@code double} the way {@link Double#parseDouble(String)} does.
+         * @param source  The buffer holding the value.
+         * @param from  The index of the first byte of the value.
+         * @param to  The index after the last byte of the value.
+         * @return  The parsed value.
+         * @throws HippoFileException  If the value is not a number.
+         */
+        private double parseDouble(final ByteBuffer source, final int from, final int to) throws HippoFileException {
+            final String value = HippoFileObject.decode(source, from, to);
+            try {
+                return Double.parseDouble(value);
+            }catch (NumberFormatException e){
+                throw invalid(value);
+            }
+        }
+
+        /**
+         * Creates the exception thrown when a value does not fit the field.
+         * @param value  The value.
+         * @return  The exception.
+         */
+        private HippoFileException invalid(final String value) {
+            return new HippoFileException("An exception was thrown whilst mapping element!\n\nDetails:\nElement Name: " + name + "\nValue: " + value + "\nField Type: " + type.getName() + "\n\nMaybe the value does not fit the field?");
+        }
+
+        /**
+         * Gets the field of {@code target}.
+         * @param target  The instance to get the field of.
+         * @return  The value of the field, boxed if it is a primitive.
+         */
+        private Object get(final Object target) {
+            try {
+                return (Object) getter.invokeExact(target);
+            }catch (RuntimeException | Error e){
+                throw e;
+            }catch (Throwable throwable){
+                throw new IllegalStateException(throwable);
+            }
+        }
+    }
+
+    /**
+     * A {@link HippoFileElementVisitor} setting the fields of one instance at a time.
+     */
+    private static final class Reader implements HippoFileElementVisitor {
+
+        /**
+         * The binding of the instances.
+         */
+        private final Binding binding;
+
+        /**
+         * Whether each property has been set already, only the first matching element is used.
+         */
+        private final boolean[] assigned;
+
+        /**
+         * The instance being read.
+         */
+        private Object target;
+
+        /**
+         * The property of the element being visited, {@code null} if it has none or it was set already.
+         */
+        private Property property;
+
+        /**
+         * How deep in nested objects the visited elements are, only elements of the outermost object are bound.
+         */
+        private int depth;
+
+        /**
+         * Creates a new {@link Reader} for {@code binding}.
+         * @param binding  The binding to read with.
+         */
+        private Reader(final Binding binding) {
+            this.binding = binding;
+            this.assigned = new boolean[binding.properties.length];
+        }
+
+        /**
+         * Starts reading a new instance.
+         * @return  The new instance.
+         */
+        private Object begin() {
+            try {
+                target = (Object) binding.constructor.invokeExact();
+            }catch (RuntimeException | Error e){
+                throw e;
+            }catch (Throwable throwable){
+                throw new IllegalStateException("An exception was thrown whilst creating " + binding.type.getName() + "!", throwable);
+            }
+            Arrays.fill(assigned, false);
+            property = null;
+            depth = 0;
+            return target;
+        }
+
+        /**
+         * @inheritDoc
+         * @see HippoFileElementVisitor#visitElement(ByteBuffer, int, int)
+         */
+        @Override
+        public void visitElement(final ByteBuffer source, final int from, final int to) {
+            if(depth > 0){
+                return;
+            }
+            final int index = binding.find(source, from, to);
+            if(index < 0 || assigned[index]){
+                property = null;
+                return;
+            }
+            assigned[index] = true;
+            property = binding.properties[index];
+        }
+
+        /**
+         * @inheritDoc
+         * @see HippoFileElementVisitor#visitValue(ByteBuffer, int, int)
+         */
+        @Override
+        public void visitValue(final ByteBuffer source, final int from, final int to) throws HippoFileException {
+            if(property != null){
+                property.set(target, source, from, to);
+                property = null;
+            }
+        }
+
+        /**
+         * @inheritDoc
+         * @see HippoFileElementVisitor#endElement(ByteBuffer, int, int)
+         */
+        @Override
+        public void endElement(final ByteBuffer source, final int from, final int to) {
+            property = null;
+        }
+
+        /**
+         * @inheritDoc
+         * @see HippoFileElementVisitor#startObject(ByteBuffer, int, int)
+         */
+        @Override
+        public void startObject(final ByteBuffer source, final int from, final int to) {
+            depth++;
+        }
+
+        /**
+         * @inheritDoc
+         * @see HippoFileElementVisitor#endObject(ByteBuffer, int, int)
+         */
+        @Override
+        public void endObject(final ByteBuffer source, final int from, final int to) {
+            depth--;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Hippo
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.hippo.systems.hippofile.merge;
+
+import me.hippo.systems.hippofile.exception.HippoFileException;
+import me.hippo.systems.hippofile.object.HippoFileElement;
+import me.hippo.systems.hippofile.object.HippoFileElements;
+import me.hippo.systems.hippofile.object.HippoFileObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decides what a {@link HippoFileMerger} writes when several objects share a name.
+ * @author Hippo
+ * @since 10/19/2026
+ */
+@FunctionalInterface
+public interface HippoFileConflictResolver {
+
+    /**
+     * Resolves a conflict.
+     * @param name  The name shared by the objects.
+     * @param objects  The objects sharing the name, in the order of the inputs, at least 2.
+     * @return  The object to write, {@code null} to write none.
+     * @throws HippoFileException  If the conflict can not be resolved.
+     */
+    HippoFileObject resolve(final String name, final List<HippoFileObject> objects) throws HippoFileException;
+
+    /**
+     * Keeps the object of the first input.
+     * @return  The resolver.
+     */
+    static HippoFileConflictResolver first() {
+        return (name, objects) -> objects.get(0);
+    }
+
+    /**
+     * Keeps the object of the last input.
+     * @return  The resolver.
+     */
+    static HippoFileConflictResolver last() {
+        return (name, objects) -> objects.get(objects.size() - 1);
+    }
+
+    /**
+     * Merges the elements of all objects, an element of a later input replaces the one with the same name of an earlier input.
+     * <p>
+     *     Nested objects are merged the same way, a nested object of a later input replaces the one with the same name of an earlier input.
+     * </p>
+     * @return  The resolver.
+     */
+    static HippoFileConflictResolver mergeElements() {
+        return (name, objects) -> {
+            final ArrayList<HippoFileElement> elements = new ArrayList<>();
+            final ArrayList<HippoFileObject> children = new ArrayList<>();
+            for(final HippoFileObject hippoFileObject : objects){
+                for(final HippoFileElement element : hippoFileObject.getElements()){
+                    if(!HippoFileElements.edit(elements, element.getName(), element)){
+                        elements.add(element);
+                    }
+                }
+                outer:
+                for(final HippoFileObject child : hippoFileObject.getObjects()){
+                    for(int i = 0; i < children.size(); i++){
+                        if(children.get(i).getName().equalsIgnoreCase(child.getName())){
+                            children.set(i, child);
+                            continue outer;
+                        }
+                    }
+                    children.add(child);
+                }
+            }
+            return new HippoFileObject(objects.get(0).getName()).replaceElements(current -> elements).replaceObjects(current -> children);
+        };
+    }
+
+    /**
+     * Fails on any conflict.
+     * @return  The resolver.
+     */
+    static HippoFileConflictResolver fail() {
+        return (name, objects) -> {
+            throw new HippoFileException("An exception was thrown whilst merging objects!\n\nDetails:\nObject Name: " + name + "\nFound: " + objects.size() + "\n\nMaybe the inputs are not disjoint?");
+        };
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Hippo
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.hippo.systems.hippofile.merge;
+
+import me.hippo.systems.hippofile.exception.HippoFileException;
+import me.hippo.systems.hippofile.object.HippoFileObject;
+
+/**
+ * Listens for the differences found by {@link HippoFileMerger#diff(java.io.File, java.io.File, HippoFileDiffListener)}.
+ * <p>
+ *     Objects are reported in the order of their names. If several objects share a name, they are paired up in the order of their files.
+ * </p>
+ * @author Hippo
+ * @since 10/19/2026
+ */
+public interface HippoFileDiffListener {
+
+    /**
+     * Called for an object only in the new file.
+     * @param hippoFileObject  The added object.
+     * @throws HippoFileException  If handling the object fails.
+     */
+    default void added(final HippoFileObject hippoFileObject) throws HippoFileException {
+    }
+
+    /**
+     * Called for an object only in the old file.
+     * @param hippoFileObject  The removed object.
+     * @throws HippoFileException  If handling the object fails.
+     */
+    default void removed(final HippoFileObject hippoFileObject) throws HippoFileException {
+    }
+
+    /**
+     * Called for an object whose content is different in the new file.
+     * @param from  The object in the old file.
+     * @param to  The object in the new file.
+     * @throws HippoFileException  If handling the object fails.
+     */
+    default void changed(final HippoFileObject from, final HippoFileObject to) throws HippoFileException {
+    }
+}
@@ -0,0 +1,687 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Hippo
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.hippo.systems.hippofile.merge;
+
+import me.hippo.systems.hippofile.exception.HippoFileException;
+import me.hippo.systems.hippofile.object.HippoFileObject;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Merges and diffs hippo files without loading them.
+ * <p>
+ *     The files are streamed one object at a time and combined in the order of the object names, ignoring case.
+ *     Sorted inputs are merged directly. Unsorted inputs are first split into sorted runs in temporary files,
+ *     each holding about {@code runSize} bytes of objects, and the runs are merged instead.
+ *     At most {@code fanIn} files are read at once, if there are more they are merged in passes,
+ *     each pass merging groups of {@code fanIn} files into larger runs until no more than {@code fanIn} are left.
+ *     Memory grows with {@code fanIn}, {@code runSize} and the largest object, never with the size or the amount of the files.
+ * </p>
+ * <p>
+ *     Encrypted files can not be streamed, they have to be decrypted first. Index footers are skipped.
+ * </p>
+ * @author Hippo
+ * @since 10/19/2026
+ */
+public final class HippoFileMerger {
+
+    /**
+     * Orders objects by name, ignoring case.
+     */
+    private static final Comparator<String> ORDER = String.CASE_INSENSITIVE_ORDER;
+
+    /**
+     * The size of the buffers used to read and write files.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * If the inputs are already sorted by object name.
+     */
+    private boolean sorted;
+
+    /**
+     * The amount of bytes of objects in each run of an unsorted input.
+     */
+    private int runSize = 16 * 1024 * 1024;
+
+    /**
+     * The most files read at once.
+     */
+    private int fanIn = 64;
+
+    /**
+     * Resolves objects sharing a name when merging.
+     */
+    private HippoFileConflictResolver resolver = HippoFileConflictResolver.last();
+
+    /**
+     * The directory runs are written to, {@code null} for the default temporary directory.
+     */
+    private File temporaryDirectory;
+
+    /**
+     * Sets if the inputs are already sorted by object name, ignoring case.
+     * <p>
+     *     Sorted inputs are merged without writing runs. An input that turns out not to be sorted fails the merge.
+     * </p>
+     * @param sorted  If the inputs are sorted.
+     * @return  The merger.
+     */
+    public HippoFileMerger setSorted(final boolean sorted) {
+        this.sorted = sorted;
+        return this;
+    }
+
+    /**
+     * Sets the amount of bytes of objects in each run of an unsorted input.
+     * <p>
+     *     The objects of a run are held in memory while it is sorted, using a few times its size.
+     * </p>
+     * @param runSize  The size of a run.
+     * @return  The merger.
+     * @throws IllegalArgumentException  If {@code runSize} is less than 1.
+     */
+    public HippoFileMerger setRunSize(final int runSize) {
+        if(runSize < 1){
+            throw new IllegalArgumentException("The run size must be at least 1!");
+        }
+        this.runSize = runSize;
+        return this;
+    }
+
+    /**
+     * Sets the most files read at once, each open file holds a channel and a buffer of at least 64 KiB.
+     * <p>
+     *     Inputs and runs beyond it are merged into larger runs first, which writes every object once more per pass.
+     * </p>
+     * @param fanIn  The most files read at once.
+     * @return  The merger.
+     * @throws IllegalArgumentException  If {@code fanIn} is less than 2.
+     */
+    public HippoFileMerger setFanIn(final int fanIn) {
+        if(fanIn < 2){
+            throw new IllegalArgumentException("The fan-in must be at least 2!");
+        }
+        this.fanIn = fanIn;
+        return this;
+    }
+
+    /**
+     * Sets the {@link HippoFileConflictResolver} used when several objects share a name, by default the object of the last input wins.
+     * @param resolver  The resolver.
+     * @return  The merger.
+     */
+    public HippoFileMerger setResolver(final HippoFileConflictResolver resolver) {
+        this.resolver = resolver;
+        return this;
+    }
+
+    /**
+     * Sets the directory runs are written to.
+     * @param temporaryDirectory  The directory, {@code null} for the default temporary directory.
+     * @return  The merger.
+     */
+    public HippoFileMerger setTemporaryDirectory(final File temporaryDirectory) {
+        this.temporaryDirectory = temporaryDirectory;
+        return this;
+    }
+
+    /**
+     * Merges {@code inputs} into {@code output}, sorted by object name.
+     * <p>
+     *     Objects sharing a name, in one input or across inputs, are handed to the {@link HippoFileConflictResolver} in the order of the inputs.
+     * </p>
+     * @param inputs  The files to merge.
+     * @param output  The file to write, it may not be one of the {@code inputs}.
+     * @return  The amount of objects written.
+     * @throws IOException  If the reading or writing of a file fails.
+     * @throws HippoFileException  If an object is malformed, a sorted input is not sorted or a conflict can not be resolved.
+     * @throws IllegalArgumentException  If {@code output} is one of the {@code inputs}.
+     */
+    public long merge(final List<File> inputs, final File output) throws IOException, HippoFileException {
+        if(Files.exists(output.toPath())){
+            for(final File input : inputs){
+                if(Files.isSameFile(input.toPath(), output.toPath())){
+                    throw new IllegalArgumentException("The output of a merge can not be one of its inputs!");
+                }
+            }
+        }
+        final ArrayList<Path> runs = new ArrayList<>();
+        try(final Source source = open(inputs, runs);
+            final Writer writer = new Writer(FileChannel.open(output.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING))){
+            final ArrayList<HippoFileObject> group = new ArrayList<>();
+            long written = 0;
+            while(source.group(group)){
+                final HippoFileObject hippoFileObject = group.size() == 1 ? group.get(0) : resolver.resolve(group.get(0).getName(), group);
+                if(hippoFileObject != null){
+                    writer.write(hippoFileObject);
+                    written++;
+                }
+            }
+            return written;
+        }finally {
+            delete(runs);
+        }
+    }
+
+    /**
+     * Compares {@code from} with {@code to}, handing every added, removed and changed object to {@code listener}.
+     * <p>
+     *     Objects are matched by name, two objects are different if their encoded content is.
+     * </p>
+     * @param from  The old file.
+     * @param to  The new file.
+     * @param listener  The listener to hand the differences to.
+     * @throws IOException  If the reading of a file fails.
+     * @throws HippoFileException  If an object is malformed, a sorted input is not sorted or the listener fails.
+     */
+    public void diff(final File from, final File to, final HippoFileDiffListener listener) throws IOException, HippoFileException {
+        final ArrayList<Path> runs = new ArrayList<>();
+        try(final Source left = open(Collections.singletonList(from), runs);
+            final Source right = open(Collections.singletonList(to), runs)){
+            final ArrayList<HippoFileObject> removed = new ArrayList<>();
+            final ArrayList<HippoFileObject> added = new ArrayList<>();
+            while(left.peek() != null || right.peek() != null){
+                final int compare = left.peek() == null ? 1 : right.peek() == null ? -1 : ORDER.compare(left.peek().getName(), right.peek().getName());
+                removed.clear();
+                added.clear();
+                if(compare <= 0){
+                    left.group(removed);
+                }
+                if(compare >= 0){
+                    right.group(added);
+                }
+                final int paired = Math.min(removed.size(), added.size());
+                for(int i = 0; i < paired; i++){
+                    if(!removed.get(i).getEncodedContent().equals(added.get(i).getEncodedContent())){
+                        listener.changed(removed.get(i), added.get(i));
+                    }
+                }
+                for(int i = paired; i < removed.size(); i++){
+                    listener.removed(removed.get(i));
+                }
+                for(int i = paired; i < added.size(); i++){
+                    listener.added(added.get(i));
+                }
+            }
+        }finally {
+            delete(runs);
+        }
+    }
+
+    /**
+     * Opens a {@link Source} over {@code inputs}, splitting them into runs first if they are not sorted
+     * and merging them in passes while there are more than {@code fanIn}.
+     * @param inputs  The files to open.
+     * @param runs  The list to add the written runs to, so they can be deleted.
+     * @return  The source.
+     * @throws IOException  If the reading or writing of a file fails.
+     * @throws HippoFileException  If an object is malformed or a sorted input is not sorted.
+     */
+    private Source open(final List<File> inputs, final List<Path> runs) throws IOException, HippoFileException {
+        List<Path> files = new ArrayList<>();
+        for(final File input : inputs){
+            if(sorted){
+                files.add(input.toPath());
+            }else{
+                files.addAll(split(input, runs));
+            }
+        }
+        while(files.size() > fanIn){
+            files = pass(files, runs);
+        }
+        return open(files);
+    }
+
+    /**
+     * Opens a {@link Source} over {@code files}.
+     * @param files  The sorted files to open, in order.
+     * @return  The source.
+     * @throws IOException  If the reading of a file fails.
+     * @throws HippoFileException  If an object is malformed.
+     */
+    private static Source open(final List<Path> files) throws IOException, HippoFileException {
+        final Source source = new Source();
+        try {
+            for(final Path file : files){
+                source.add(new Cursor(file, true));
+            }
+        }catch (IOException | HippoFileException | RuntimeException e){
+            source.close();
+            throw e;
+        }
+        return source;
+    }
+
+    /**
+     * Merges each group of {@code fanIn} consecutive {@code files} into one run, keeping the order of objects sharing a name.
+     * <p>
+     *     Merged runs are deleted right away, inputs are left as they are.
+     * </p>
+     * @param files  The sorted files to merge, in order.
+     * @param runs  The list to add the written runs to, so they can be deleted.
+     * @return  The merged runs, in order.
+     * @throws IOException  If the reading or writing of a file fails.
+     * @throws HippoFileException  If an object is malformed or a sorted input is not sorted.
+     */
+    private List<Path> pass(final List<Path> files, final List<Path> runs) throws IOException, HippoFileException {
+        final HashSet<Path> temporary = new HashSet<>(runs);
+        final ArrayList<Path> merged = new ArrayList<>();
+        final ArrayList<HippoFileObject> group = new ArrayList<>();
+        for(int from = 0; from < files.size(); from += fanIn){
+            final List<Path> merging = files.subList(from, Math.min(from + fanIn, files.size()));
+            final Path path = createRun(runs);
+            try(final Source source = open(merging);
+                final Writer writer = new Writer(FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))){
+                while(source.group(group)){
+                    for(final HippoFileObject hippoFileObject : group){
+                        writer.write(hippoFileObject);
+                    }
+                }
+            }
+            for(final Path file : merging){
+                if(temporary.contains(file)){
+                    Files.deleteIfExists(file);
+                }
+            }
+            merged.add(path);
+        }
+        return merged;
+    }
+
+    /**
+     * Splits {@code input} into sorted runs.
+     * @param input  The file to split.
+     * @param runs  The list to add the written runs to, so they can be deleted.
+     * @return  The runs of {@code input}, in order.
+     * @throws IOException  If the reading or writing of a file fails.
+     * @throws HippoFileException  If an object is malformed.
+     */
+    private List<Path> split(final File input, final List<Path> runs) throws IOException, HippoFileException {
+        final ArrayList<Path> split = new ArrayList<>();
+        final ArrayList<HippoFileObject> run = new ArrayList<>();
+        try(final Cursor cursor = new Cursor(input.toPath(), false)){
+            long size = 0;
+            while(cursor.next()){
+                run.add(cursor.current);
+                size += cursor.current.getEncodedContent().remaining();
+                if(size >= runSize){
+                    split.add(write(run, runs));
+                    run.clear();
+                    size = 0;
+                }
+            }
+        }
+        if(!run.isEmpty() || split.isEmpty()){
+            split.add(write(run, runs));
+        }
+        return split;
+    }
+
+    /**
+     * Sorts {@code run} by name and writes it to a temporary file.
+     * @param run  The objects of the run.
+     * @param runs  The list to add the written run to, so it can be deleted.
+     * @return  The written run.
+     * @throws IOException  If the writing fails.
+     */
+    private Path write(final List<HippoFileObject> run, final List<Path> runs) throws IOException {
+        run.sort((first, second) -> ORDER.compare(first.getName(), second.getName()));
+        final Path path = createRun(runs);
+        try(final Writer writer = new Writer(FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))){
+            for(final HippoFileObject hippoFileObject : run){
+                writer.write(hippoFileObject);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Creates an empty temporary file for a run.
+     * @param runs  The list to add the run to, so it can be deleted.
+     * @return  The created file.
+     * @throws IOException  If the creating fails.
+     */
+    private Path createRun(final List<Path> runs) throws IOException {
+        final Path path = temporaryDirectory == null ? Files.createTempFile("hippo-run", ".hippo") : Files.createTempFile(temporaryDirectory.toPath(), "hippo-run", ".hippo");
+        runs.add(path);
+        return path;
+    }
+
+    /**
+     * Deletes the {@code runs}.
+     * @param runs  The runs to delete.
+     * @throws IOException  If the deleting of a run fails.
+     */
+    private static void delete(final List<Path> runs) throws IOException {
+        for(final Path run : runs){
+            Files.deleteIfExists(run);
+        }
+    }
+
+    /**
+     * The objects of several {@link Cursor}s, in the order of their names.
+     */
+    private static final class Source implements Closeable {
+
+        /**
+         * The cursors that have an object, ordered by the name of that object, then by the order they were added in.
+         */
+        private final PriorityQueue<Cursor> queue = new PriorityQueue<>((first, second) -> {
+            final int compare = ORDER.compare(first.current.getName(), second.current.getName());
+            return compare != 0 ? compare : Integer.compare(first.order, second.order);
+        });
+
+        /**
+         * All of the cursors, so they can be closed.
+         */
+        private final ArrayList<Cursor> cursors = new ArrayList<>();
+
+        /**
+         * Adds a cursor.
+         * @param cursor  The cursor to add.
+         * @throws IOException  If the reading fails.
+         * @throws HippoFileException  If an object is malformed.
+         */
+        private void add(final Cursor cursor) throws IOException, HippoFileException {
+            cursor.order = cursors.size();
+            cursors.add(cursor);
+            if(cursor.next()){
+                queue.add(cursor);
+            }
+        }
+
+        /**
+         * Gets the next object without taking it.
+         * @return  The next object, {@code null} if there is none.
+         */
+        private HippoFileObject peek() {
+            final Cursor cursor = queue.peek();
+            return cursor == null ? null : cursor.current;
+        }
+
+        /**
+         * Takes the next object and every following object with the same name.
+         * @param group  The list to add the objects to.
+         * @return  If there was an object.
+         * @throws IOException  If the reading fails.
+         * @throws HippoFileException  If an object is malformed or a cursor is not sorted.
+         */
+        private boolean group(final List<HippoFileObject> group) throws IOException, HippoFileException {
+            group.clear();
+            final HippoFileObject first = peek();
+            if(first == null){
+                return false;
+            }
+            while(peek() != null && ORDER.compare(peek().getName(), first.getName()) == 0){
+                final Cursor cursor = queue.poll();
+                group.add(cursor.current);
+                if(cursor.next()){
+                    queue.add(cursor);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @inheritDoc
+         * @see Closeable#close()
+         */
+        @Override
+        public void close() throws IOException {
+            IOException failure = null;
+            for(final Cursor cursor : cursors){
+                try {
+                    cursor.close();
+                }catch (IOException e){
+                    failure = e;
+                }
+            }
+            if(failure != null){
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Reads the objects of one file, one line at a time.
+     */
+    private static final class Cursor implements Closeable {
+
+        /**
+         * The file being read.
+         */
+        private final Path path;
+
+        /**
+         * The channel reading the file.
+         */
+        private final FileChannel channel;
+
+        /**
+         * If the file has to be sorted by object name.
+         */
+        private final boolean sorted;
+
+        /**
+         * The bytes read but not consumed yet, it grows to fit the longest line.
+         */
+        private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        /**
+         * The index up to which {@code buffer} is known to hold no line break.
+         */
+        private int scanned;
+
+        /**
+         * If the end of the file has been read.
+         */
+        private boolean end;
+
+        /**
+         * The current object, {@code null} before the first and after the last one.
+         */
+        private HippoFileObject current;
+
+        /**
+         * The order of the cursor within its {@link Source}.
+         */
+        private int order;
+
+        /**
+         * Opens a new {@link Cursor}.
+         * @param path  The file to read.
+         * @param sorted  If the file has to be sorted by object name.
+         * @throws IOException  If the opening fails.
+         */
+        private Cursor(final Path path, final boolean sorted) throws IOException {
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.sorted = sorted;
+            buffer.flip();
+        }
+
+        /**
+         * Reads the next object into {@code current}.
+         * @return  If there was an object.
+         * @throws IOException  If the reading fails.
+         * @throws HippoFileException  If the object is malformed or comes before the previous one although the file has to be sorted.
+         */
+        private boolean next() throws IOException, HippoFileException {
+            final HippoFileObject previous = current;
+            while(true){
+                int lineEnd = Math.max(scanned, buffer.position());
+                while(lineEnd < buffer.limit() && buffer.get(lineEnd) != '\n'){
+                    lineEnd++;
+                }
+                scanned = lineEnd;
+                if(lineEnd == buffer.limit() && !end){
+                    fill();
+                    continue;
+                }
+                if(lineEnd == buffer.position() && end){
+                    current = null;
+                    return false;
+                }
+                final int lineStart = buffer.position();
+                int to = lineEnd;
+                if(to > lineStart && buffer.get(to - 1) == '\r'){
+                    to--;
+                }
+                buffer.position(Math.min(lineEnd + 1, buffer.limit()));
+                if(to == lineStart || isFooter(lineStart, to)){
+                    continue;
+                }
+                current = HippoFileObject.read(buffer, lineStart, to);
+                if(sorted && previous != null && ORDER.compare(previous.getName(), current.getName()) > 0){
+                    throw new HippoFileException("An exception was thrown whilst merging objects!\n\nDetails:\nFile Name: " + path + "\nObject Name: " + current.getName() + "\nPrevious Object Name: " + previous.getName() + "\n\nMaybe the file is not sorted?");
+                }
+                return true;
+            }
+        }
+
+        /**
+         * Reads more of the file into {@code buffer}, growing it if it is full.
+         * @throws IOException  If the reading fails.
+         */
+        private void fill() throws IOException {
+            final int consumed = buffer.position();
+            buffer.compact();
+            scanned -= consumed;
+            if(!buffer.hasRemaining()){
+                final ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() * 2);
+                buffer.flip();
+                grown.put(buffer);
+                buffer = grown;
+            }
+            if(channel.read(buffer) == -1){
+                end = true;
+            }
+            buffer.flip();
+        }
+
+        /**
+         * Checks if the line between {@code from} and {@code to} belongs to an index footer.
+         * @param from  The index of the first byte of the line.
+         * @param to  The index after the last byte of the line.
+         * @return  If the line belongs to an index footer.
+         */
+        private boolean isFooter(final int from, final int to) {
+            return to - from > 6 && buffer.get(from) == '#' && buffer.get(from + 1) == 'H' && buffer.get(from + 2) == 'i' && buffer.get(from + 3) == 'p' && buffer.get(from + 4) == 'p' && buffer.get(from + 5) == 'o';
+        }
+
+        /**
+         * @inheritDoc
+         * @see Closeable#close()
+         */
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes objects to a channel through a buffer.
+     */
+    private static final class Writer implements Closeable {
+
+        /**
+         * The channel to write to.
+         */
+        private final WritableByteChannel channel;
+
+        /**
+         * The bytes not written yet.
+         */
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        /**
+         * Creates a new {@link Writer}.
+         * @param channel  The channel to write to, it is closed with the writer.
+         */
+        private Writer(final WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Writes the encoded content of {@code hippoFileObject}.
+         * @param hippoFileObject  The object to write.
+         * @throws IOException  If the writing fails.
+         */
+        private void write(final HippoFileObject hippoFileObject) throws IOException {
+            final ByteBuffer encoded = hippoFileObject.getEncodedContent();
+            if(encoded.remaining() > buffer.remaining()){
+                flush();
+            }
+            if(encoded.remaining() > buffer.remaining()){
+                while(encoded.hasRemaining()){
+                    channel.write(encoded);
+                }
+                return;
+            }
+            buffer.put(encoded);
+        }
+
+        /**
+         * Writes the buffered bytes.
+         * @throws IOException  If the writing fails.
+         */
+        private void flush() throws IOException {
+            buffer.flip();
+            while(buffer.hasRemaining()){
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        /**
+         * @inheritDoc
+         * @see Closeable#close()
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            }finally {
+                channel.close();
+            }
+        }
+    }
+}
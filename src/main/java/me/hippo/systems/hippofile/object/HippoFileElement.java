@@ -26,6 +26,9 @@ package me.hippo.systems.hippofile.object;
 
 import me.hippo.systems.hippofile.exception.HippoFileException;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 
 /**
  * @author Hippo
@@ -43,6 +46,16 @@ public final class HippoFileElement {
      */
     private final Object[] values;
 
+    /**
+     * The UTF-8 encoded content of the {@link HippoFileElement}, {@code null} until it is read or first serialized.
+     */
+    volatile byte[] encoded;
+
+    /**
+     * If every value is immutable, so the encoded content can be cached.
+     */
+    private final boolean cacheable;
+
 
     /**
      * Creates a new {@link HippoFileElement} with the desired name and values.
@@ -52,7 +65,23 @@ public final class HippoFileElement {
      */
     public HippoFileElement(final String name, final Object... values) {
         this.name = name;
-        this.values = values;
+        this.values = values.clone();
+        boolean cacheable = true;
+        for(final Object value : this.values){
+            cacheable &= isImmutable(value);
+        }
+        this.cacheable = cacheable;
+    }
+
+    /**
+     * Checks if the text of {@code value} can never change.
+     * @param value  The value.
+     * @return  If the value is immutable.
+     */
+    private static boolean isImmutable(final Object value) {
+        return value == null || value instanceof String || value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte || value instanceof Double || value instanceof Float || value instanceof Boolean
+                || value instanceof Character || value instanceof Enum || value instanceof BigInteger || value instanceof BigDecimal;
     }
 
     /**
@@ -71,6 +100,32 @@ public final class HippoFileElement {
     }
 
 
+    /**
+     * Gets the cached encoded content, serializing the {@link HippoFileElement} if there is none.
+     * <p>
+     *     Elements holding a mutable value are serialized every time, so changes of the value are saved.
+     * </p>
+     * @return  The encoded content.
+     */
+    byte[] encode(){
+        byte[] content = encoded;
+        if(content == null){
+            content = getContent().getBytes(StandardCharsets.UTF_8);
+            if(cacheable){
+                encoded = content;
+            }
+        }
+        return content;
+    }
+
+    /**
+     * Checks if the encoded content of the {@link HippoFileElement} can be cached.
+     * @return  If it can be cached.
+     */
+    boolean isCacheable(){
+        return cacheable;
+    }
+
     /**
      * Gets the name of the {@link HippoFileElement}.
      * @return  The name.
@@ -81,10 +136,12 @@ public final class HippoFileElement {
 
     /**
      * Gets the values of the {@link HippoFileElement}.
+     * <p>
+     *     The returned {@code array} is a copy, changing it does not change the element.
+     * </p>
      * @return  The values.
      */
     public Object[] getValues() {
-
-        return values;
+        return values.clone();
     }
 }
@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Hippo
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.hippo.systems.hippofile.object;
+
+import me.hippo.systems.hippofile.exception.HippoFileException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Visits the elements found by {@link HippoFileObject#visit(ByteBuffer, int, int, HippoFileElementVisitor)}.
+ * <p>
+ *     Every range is handed over as raw UTF-8 bytes, nothing is decoded or allocated unless the visitor does it.
+ *     The elements of a nested object are visited between {@link #startObject(ByteBuffer, int, int)} and {@link #endObject(ByteBuffer, int, int)},
+ *     a visitor that does not override them sees them as elements of the outer object.
+ * </p>
+ * @author Hippo
+ * @since 10/19/2026
+ */
+public interface HippoFileElementVisitor {
+
+    /**
+     * Visits the start of an element.
+     * @param source  The buffer holding the element.
+     * @param from  The index of the first byte of the element's name.
+     * @param to  The index after the last byte of the element's name.
+     * @throws HippoFileException  If handling the element fails.
+     */
+    void visitElement(final ByteBuffer source, final int from, final int to) throws HippoFileException;
+
+    /**
+     * Visits a value of the current element.
+     * @param source  The buffer holding the value.
+     * @param from  The index of the first byte of the value.
+     * @param to  The index after the last byte of the value.
+     * @throws HippoFileException  If handling the value fails.
+     */
+    void visitValue(final ByteBuffer source, final int from, final int to) throws HippoFileException;
+
+    /**
+     * Visits the end of the current element.
+     * @param source  The buffer holding the element.
+     * @param from  The index of the element's opening bracket.
+     * @param to  The index after the element's closing bracket.
+     * @throws HippoFileException  If handling the element fails.
+     */
+    void endElement(final ByteBuffer source, final int from, final int to) throws HippoFileException;
+
+    /**
+     * Visits the start of a nested object, the following elements belong to it until {@link #endObject(ByteBuffer, int, int)}.
+     * @param source  The buffer holding the nested object.
+     * @param from  The index of the first byte of the nested object's name.
+     * @param to  The index after the last byte of the nested object's name.
+     * @throws HippoFileException  If handling the nested object fails.
+     */
+    default void startObject(final ByteBuffer source, final int from, final int to) throws HippoFileException {
+    }
+
+    /**
+     * Visits the end of a nested object.
+     * @param source  The buffer holding the nested object.
+     * @param from  The index of the first byte of the nested object's name.
+     * @param to  The index after the nested object's closing brace.
+     * @throws HippoFileException  If handling the nested object fails.
+     */
+    default void endObject(final ByteBuffer source, final int from, final int to) throws HippoFileException {
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Hippo
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.hippo.systems.hippofile.object;
+
+import java.util.List;
+
+/**
+ * Helpers for lists of {@link HippoFileElement}s.
+ * @author Hippo
+ * @since 10/19/2026
+ */
+public final class HippoFileElements {
+
+    /**
+     * No instances, only static helpers.
+     */
+    private HippoFileElements() {
+    }
+
+    /**
+     * Replaces or removes the first {@link HippoFileElement} of {@code elements} named {@code element}, ignoring case.
+     * @param elements  The elements to edit.
+     * @param element  The name of the element.
+     * @param replacement  The new element, {@code null} to remove it.
+     * @return  If an element was found.
+     */
+    public static boolean edit(final List<HippoFileElement> elements, final String element, final HippoFileElement replacement) {
+        for(int i = 0; i < elements.size(); i++){
+            if(elements.get(i).getName().equalsIgnoreCase(element)){
+                if(replacement == null){
+                    elements.remove(i);
+                }else{
+                    elements.set(i, replacement);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -26,7 +26,19 @@ package me.hippo.systems.hippofile.object;
 
 import me.hippo.systems.hippofile.exception.HippoFileException;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.UnaryOperator;
 
 /**
  * @author Hippo
@@ -40,17 +52,51 @@ public final class HippoFileObject {
     private final String name;
 
     /**
-     * An {@link ArrayList} of {@link HippoFileElement}s to store all the {@link HippoFileObject}'s elements.
+     * The current {@link State} of the {@link HippoFileObject}.
+     * <p>
+     *     States are never changed, every change publishes a new one, so a reader always sees a whole version of the elements.
+     * </p>
      */
-    private final ArrayList<HippoFileElement> elements;
+    private volatile State state;
+
+    /**
+     * If the {@link HippoFileObject} is an immutable snapshot.
+     */
+    private final boolean snapshot;
+
+    /**
+     * The {@link HippoFileObjectListener}s notified after each change.
+     */
+    private final CopyOnWriteArrayList<HippoFileObjectListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Added to every nested {@link HippoFileObject}, so a change of a nested object is a change of this object as well.
+     */
+    private final HippoFileObjectListener childListener = this::childChanged;
 
     /**
      * Creates a new {@link HippoFileObject} with the desired name.
      * @param name  The name of the {@link HippoFileObject}.
      */
     public HippoFileObject(final String name) {
+        this(name, new State(new HippoFileElement[0], new HippoFileObject[0], null), false);
+    }
+
+    /**
+     * Creates a new {@link HippoFileObject} with the desired name and state.
+     * @param name  The name of the {@link HippoFileObject}.
+     * @param state  The state.
+     * @param snapshot  If the object is an immutable snapshot.
+     */
+    private HippoFileObject(final String name, final State state, final boolean snapshot) {
         this.name = name;
-        this.elements = new ArrayList<>();
+        this.state = state;
+        this.snapshot = snapshot;
+        if(!snapshot){
+            for(final HippoFileObject child : state.children){
+                child.addListener(childListener);
+            }
+        }
     }
 
     /**
@@ -60,7 +106,7 @@ public final class HippoFileObject {
      * @throws HippoFileException  If the element does not exist.
      */
     public HippoFileElement getElement(final String element) throws HippoFileException {
-        for (final HippoFileElement hippoFileElement : elements) {
+        for (final HippoFileElement hippoFileElement : state.elements) {
             if (hippoFileElement.getName().equalsIgnoreCase(element)) {
                 return hippoFileElement;
             }
@@ -72,48 +118,552 @@ public final class HippoFileObject {
      * Adds an {@link HippoFileElement} to the {@code elements}.
      * @param element  The element to add.
      * @return  The hippo file object.
+     * @throws UnsupportedOperationException  If the object is a snapshot.
      */
     public HippoFileObject addElement(final HippoFileElement element){
-        elements.add(element);
+        return addElements(new HippoFileElement[]{element});
+    }
+
+    /**
+     * Adds {@code elements} to the {@code elements} as one change.
+     * @param elements  The elements to add.
+     * @return  The hippo file object.
+     * @throws UnsupportedOperationException  If the object is a snapshot.
+     */
+    private HippoFileObject addElements(final HippoFileElement[] elements){
+        checkMutable();
+        synchronized (this) {
+            final State current = state;
+            final HippoFileElement[] added = Arrays.copyOf(current.elements, current.elements.length + elements.length);
+            System.arraycopy(elements, 0, added, current.elements.length, elements.length);
+            state = new State(added, current.children, null);
+        }
+        for(final HippoFileObjectListener listener : listeners){
+            listener.changed(this);
+        }
+        return this;
+    }
+
+    /**
+     * Replaces the first {@link HippoFileElement} with the name of {@code element}.
+     * @param element  The new element.
+     * @return  The hippo file object.
+     * @throws HippoFileException  If there is no element with that name.
+     * @throws UnsupportedOperationException  If the object is a snapshot.
+     */
+    public HippoFileObject replaceElement(final HippoFileElement element) throws HippoFileException {
+        return editElement(element.getName(), element);
+    }
+
+    /**
+     * Removes the first {@link HippoFileElement} with the name {@code element}.
+     * @param element  The name of the element to remove.
+     * @return  The hippo file object.
+     * @throws HippoFileException  If there is no element with that name.
+     * @throws UnsupportedOperationException  If the object is a snapshot.
+     */
+    public HippoFileObject removeElement(final String element) throws HippoFileException {
+        return editElement(element, null);
+    }
+
+    /**
+     * Replaces or removes the first {@link HippoFileElement} named {@code element}.
+     * @param element  The name of the element.
+     * @param replacement  The new element, {@code null} to remove it.
+     * @return  The hippo file object.
+     * @throws HippoFileException  If there is no element with that name.
+     */
+    private HippoFileObject editElement(final String element, final HippoFileElement replacement) throws HippoFileException {
+        final boolean[] found = new boolean[1];
+        replaceElements(elements -> {
+            final ArrayList<HippoFileElement> edited = new ArrayList<>(elements);
+            found[0] = HippoFileElements.edit(edited, element, replacement);
+            return edited;
+        });
+        if(!found[0]){
+            throw new HippoFileException("An exception was thrown whilst finding element!\n\nDetails:\nObject Name: " + name + "\nElement Name: " + element + "\nFound: null\n\nMaybe the element does not exist?");
+        }
+        return this;
+    }
+
+    /**
+     * Atomically replaces all of the {@code elements}.
+     * <p>
+     *     {@code function} is given the current elements and returns the new ones, no other change can happen in between.
+     *     Listeners are notified once, however many elements changed.
+     * </p>
+     * @param function  The function making the new elements from the current elements.
+     * @return  The hippo file object.
+     * @throws UnsupportedOperationException  If the object is a snapshot.
+     */
+    public HippoFileObject replaceElements(final UnaryOperator<List<HippoFileElement>> function){
+        checkMutable();
+        synchronized (this) {
+            final State current = state;
+            final List<HippoFileElement> replaced = function.apply(getElements());
+            state = new State(replaced.toArray(new HippoFileElement[0]), current.children, null);
+        }
+        for(final HippoFileObjectListener listener : listeners){
+            listener.changed(this);
+        }
+        return this;
+    }
+
+    /**
+     * Gets a nested {@link HippoFileObject} by its name.
+     * @param object  The name of the nested object.
+     * @return  The first nested object with that name.
+     * @throws HippoFileException  If the nested object does not exist.
+     */
+    public HippoFileObject getObject(final String object) throws HippoFileException {
+        for(final HippoFileObject child : state.children){
+            if(child.getName().equalsIgnoreCase(object)){
+                return child;
+            }
+        }
+        throw new HippoFileException("An exception was thrown whilst finding object!\n\nDetails:\nObject Name: " + name + "\nNested Object Name: " + object + "\nFound: null\n\nMaybe the object does not exist?");
+    }
+
+    /**
+     * Adds a nested {@link HippoFileObject}.
+     * <p>
+     *     Changes of the nested object are changes of this object, listeners are notified for both.
+     * </p>
+     * @param object  The object to nest.
+     * @return  The hippo file object.
+     * @throws UnsupportedOperationException  If the object is a snapshot.
+     */
+    public HippoFileObject addObject(final HippoFileObject object){
+        return replaceObjects(objects -> {
+            final ArrayList<HippoFileObject> added = new ArrayList<>(objects);
+            added.add(object);
+            return added;
+        });
+    }
+
+    /**
+     * Removes the first nested {@link HippoFileObject} named {@code object}.
+     * @param object  The name of the nested object to remove.
+     * @return  The hippo file object.
+     * @throws HippoFileException  If there is no nested object with that name.
+     * @throws UnsupportedOperationException  If the object is a snapshot.
+     */
+    public HippoFileObject removeObject(final String object) throws HippoFileException {
+        final boolean[] found = new boolean[1];
+        replaceObjects(objects -> {
+            final ArrayList<HippoFileObject> removed = new ArrayList<>(objects);
+            for(int i = 0; i < removed.size(); i++){
+                if(removed.get(i).getName().equalsIgnoreCase(object)){
+                    removed.remove(i);
+                    found[0] = true;
+                    break;
+                }
+            }
+            return removed;
+        });
+        if(!found[0]){
+            throw new HippoFileException("An exception was thrown whilst finding object!\n\nDetails:\nObject Name: " + name + "\nNested Object Name: " + object + "\nFound: null\n\nMaybe the object does not exist?");
+        }
+        return this;
+    }
+
+    /**
+     * Atomically replaces all of the nested {@link HippoFileObject}s.
+     * <p>
+     *     {@code function} is given the current nested objects and returns the new ones, no other change can happen in between.
+     *     Listeners are notified once, however many nested objects changed.
+     * </p>
+     * @param function  The function making the new nested objects from the current nested objects.
+     * @return  The hippo file object.
+     * @throws UnsupportedOperationException  If the object is a snapshot.
+     * @throws IllegalArgumentException  If the object would be nested in itself.
+     */
+    public HippoFileObject replaceObjects(final UnaryOperator<List<HippoFileObject>> function){
+        return replace(null, function, null);
+    }
+
+    /**
+     * Atomically replaces the elements and nested {@link HippoFileObject}s with those of {@code source}, keeping this instance.
+     * <p>
+     *     References to this object stay valid, listeners are notified once.
+     * </p>
+     * @param source  The object to take the elements and nested objects of, it should not be used afterwards.
+     * @return  The hippo file object.
+     * @throws UnsupportedOperationException  If the object is a snapshot.
+     * @throws IllegalArgumentException  If the object would be nested in itself.
+     */
+    public HippoFileObject replaceWith(final HippoFileObject source){
+        final State replacement = source.state;
+        return replace(replacement.elements, current -> Arrays.asList(replacement.children), replacement.encoded);
+    }
+
+    /**
+     * Replaces the nested {@link HippoFileObject}s and optionally the elements in one step.
+     * @param elements  The new elements, {@code null} to keep the current ones.
+     * @param function  The function making the new nested objects from the current nested objects.
+     * @param encoded  The encoded content of the new elements and nested objects, {@code null} if it is not known.
+     * @return  The hippo file object.
+     * @throws UnsupportedOperationException  If the object is a snapshot.
+     * @throws IllegalArgumentException  If the object would be nested in itself.
+     */
+    private HippoFileObject replace(final HippoFileElement[] elements, final UnaryOperator<List<HippoFileObject>> function, final byte[] encoded){
+        checkMutable();
+        synchronized (this) {
+            final State current = state;
+            final HippoFileObject[] replaced = function.apply(getObjects()).toArray(new HippoFileObject[0]);
+            for(final HippoFileObject child : replaced){
+                if(child.contains(this)){
+                    throw new IllegalArgumentException("A hippo file object can not be nested in itself!");
+                }
+            }
+            final List<HippoFileObject> previous = Arrays.asList(current.children);
+            final List<HippoFileObject> next = Arrays.asList(replaced);
+            for(final HippoFileObject child : current.children){
+                if(!containsInstance(next, child)){
+                    child.removeListener(childListener);
+                }
+            }
+            for(final HippoFileObject child : replaced){
+                if(!containsInstance(previous, child)){
+                    child.addListener(childListener);
+                }
+            }
+            state = elements == null ? new State(current.elements, replaced, null) : new State(elements, replaced, encoded);
+        }
+        for(final HippoFileObjectListener listener : listeners){
+            listener.changed(this);
+        }
+        return this;
+    }
+
+    /**
+     * Gets the list of nested {@link HippoFileObject}s.
+     * <p>
+     *     The list is an unmodifiable view of the nested objects as they are now, later changes do not show in it.
+     * </p>
+     * @return  The nested objects.
+     */
+    public List<HippoFileObject> getObjects() {
+        return Collections.unmodifiableList(Arrays.asList(state.children));
+    }
+
+    /**
+     * Gets a nested {@link HippoFileObject} by its path, relative to this object.
+     * <p>
+     *     A path is made of names joined with {@code .}, for example {@code db.pool}. Each name is found in a cached hash index
+     *     of the object before it, so a lookup takes time in the length of the path, not in the size of the objects.
+     * </p>
+     * @param path  The path of the nested object.
+     * @return  The nested object.
+     * @throws HippoFileException  If there is no nested object at {@code path}.
+     */
+    public HippoFileObject getObjectPath(final String path) throws HippoFileException {
+        HippoFileObject current = this;
+        int start = 0;
+        while(true){
+            final int dot = path.indexOf('.', start);
+            final HippoFileObject child = current.state.index().objects.get(key(dot == -1 ? path.substring(start) : path.substring(start, dot)));
+            if(child == null){
+                throw missingPath(path);
+            }
+            if(dot == -1){
+                return child;
+            }
+            current = child;
+            start = dot + 1;
+        }
+    }
+
+    /**
+     * Gets a {@link HippoFileElement} by its path, relative to this object.
+     * <p>
+     *     The last name of the path is the element, the names before it are nested objects, for example {@code db.pool.size}.
+     * </p>
+     * @param path  The path of the element.
+     * @return  The element.
+     * @throws HippoFileException  If there is no element at {@code path}.
+     * @see #getObjectPath(String)
+     */
+    public HippoFileElement getPath(final String path) throws HippoFileException {
+        final int dot = path.lastIndexOf('.');
+        final HippoFileObject parent = dot == -1 ? this : getObjectPath(path.substring(0, dot));
+        final HippoFileElement element = parent.state.index().elements.get(key(path.substring(dot + 1)));
+        if(element == null){
+            throw missingPath(path);
+        }
+        return element;
+    }
+
+    /**
+     * Creates the exception thrown when a path does not exist.
+     * @param path  The path.
+     * @return  The exception.
+     */
+    private HippoFileException missingPath(final String path) {
+        return new HippoFileException("An exception was thrown whilst finding path!\n\nDetails:\nObject Name: " + name + "\nPath: " + path + "\nFound: null\n\nMaybe the path does not exist?");
+    }
+
+    /**
+     * Gets the key of a name in the hash indexes, names are matched ignoring case.
+     * @param name  The name.
+     * @return  The key.
+     */
+    public static String key(final String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Checks if {@code object} is this object or nested in it, at any depth.
+     * @param object  The object to look for.
+     * @return  If the object was found.
+     */
+    private boolean contains(final HippoFileObject object) {
+        if(this == object){
+            return true;
+        }
+        for(final HippoFileObject child : state.children){
+            if(child.contains(object)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if {@code objects} holds the instance {@code object}.
+     * @param objects  The objects to look through.
+     * @param object  The object to look for.
+     * @return  If the instance was found.
+     */
+    private static boolean containsInstance(final List<HippoFileObject> objects, final HippoFileObject object) {
+        for(final HippoFileObject hippoFileObject : objects){
+            if(hippoFileObject == object){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Called when a nested {@link HippoFileObject} changes, dropping the cached encoded content and notifying the listeners.
+     * @param child  The nested object that changed.
+     */
+    private void childChanged(final HippoFileObject child){
+        synchronized (this) {
+            final State current = state;
+            state = new State(current.elements, current.children, null);
+        }
+        for(final HippoFileObjectListener listener : listeners){
+            listener.changed(this);
+        }
+    }
+
+    /**
+     * Gets an immutable snapshot of the {@link HippoFileObject} as it is now.
+     * <p>
+     *     The snapshot shares the current elements and encoded content, so taking one copies nothing.
+     *     Nested objects are snapshotted as well.
+     * </p>
+     * @return  The snapshot, or this object if it already is one.
+     */
+    public HippoFileObject snapshot(){
+        if(snapshot){
+            return this;
+        }
+        final State current = state;
+        if(current.children.length == 0){
+            return new HippoFileObject(name, current, true);
+        }
+        final HippoFileObject[] children = new HippoFileObject[current.children.length];
+        for(int i = 0; i < children.length; i++){
+            children[i] = current.children[i].snapshot();
+        }
+        return new HippoFileObject(name, new State(current.elements, children, current.encoded), true);
+    }
+
+    /**
+     * Checks if the {@link HippoFileObject} is an immutable snapshot.
+     * @return  If the object is a snapshot.
+     */
+    public boolean isSnapshot(){
+        return snapshot;
+    }
+
+    /**
+     * Adds a {@link HippoFileObjectListener} notified after each change.
+     * @param listener  The listener to add.
+     * @return  The hippo file object.
+     */
+    public HippoFileObject addListener(final HippoFileObjectListener listener){
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Removes a {@link HippoFileObjectListener}.
+     * @param listener  The listener to remove.
+     * @return  The hippo file object.
+     */
+    public HippoFileObject removeListener(final HippoFileObjectListener listener){
+        listeners.remove(listener);
         return this;
     }
 
+    /**
+     * Reads a {@link HippoFileObject} from {@code source}.
+     * <p>
+     *     The bytes between {@code from} and {@code to} must hold exactly one object, for example {@code MyObject{(MyElement[MyValue])}}.
+     *     Objects can be nested after or between the elements, for example {@code MyObject{(MyElement[MyValue])Nested{(Other[Value])}}}.
+     *     The position and limit of {@code source} are left untouched.
+     *     The bytes read are kept as the encoded content, so saving an unchanged object is a plain copy.
+     * </p>
+     * @param source  The buffer to read from.
+     * @param from  The index of the first byte of the object.
+     * @param to  The index after the last byte of the object.
+     * @return  The object.
+     * @throws HippoFileException  If the object is malformed.
+     */
+    public static HippoFileObject read(final ByteBuffer source, final int from, final int to) throws HippoFileException {
+        final Builder builder = new Builder();
+        final String name = visit(source, from, to, builder);
+        return builder.build(name, source, from, to);
+    }
+
+    /**
+     * Walks an object of {@code source} without building it, handing each element and value to {@code visitor}.
+     * <p>
+     *     The bytes between {@code from} and {@code to} must hold exactly one object, for example {@code MyObject{(MyElement[MyValue])}}.
+     *     The elements of nested objects are visited between {@link HippoFileElementVisitor#startObject(ByteBuffer, int, int)}
+     *     and {@link HippoFileElementVisitor#endObject(ByteBuffer, int, int)}.
+     * </p>
+     * @param source  The buffer to read from.
+     * @param from  The index of the first byte of the object.
+     * @param to  The index after the last byte of the object.
+     * @param visitor  The visitor to hand the elements to.
+     * @return  The name of the object.
+     * @throws HippoFileException  If the object is malformed or the visitor fails.
+     */
+    public static String visit(final ByteBuffer source, final int from, final int to, final HippoFileElementVisitor visitor) throws HippoFileException {
+        int open = from;
+        while(open < to && source.get(open) != '{'){
+            open++;
+        }
+        if(open == to || source.get(to - 1) != '}'){
+            throw new HippoFileException("An exception was thrown whilst reading object!\n\nDetails:\nObject: " + decode(source, from, to) + "\n\nMaybe the object is not enclosed in {}?");
+        }
+        final String name = decode(source, from, open);
+        if(visitElements(name, source, open + 1, to, visitor) != to - 1){
+            throw new HippoFileException("An exception was thrown whilst reading object!\n\nDetails:\nObject: " + decode(source, from, to) + "\n\nMaybe the object is not enclosed in {}?");
+        }
+        return name;
+    }
+
     /**
      * Scans an {@code array} of {@code char} for {@link HippoFileElement}s.
      * @param bounds  The {@code array} to scan.
      * @throws HippoFileException  If creating the new {@link HippoFileElement} fails.
      */
     public void scanElements(final char[] bounds) throws HippoFileException {
-        final StringBuilder boundBuilder = new StringBuilder();
-        for(final char character : bounds){
-            boundBuilder.append(character);
+        final ByteBuffer source = StandardCharsets.UTF_8.encode(CharBuffer.wrap(bounds));
+        scanElements(source, source.position(), source.limit());
+    }
+
+    /**
+     * Scans the bytes of {@code source} between {@code from} and {@code to} for {@link HippoFileElement}s.
+     * <p>
+     *     Each element is read straight from the buffer, for example {@code (MyElement[MyValue][AnotherValue])}.
+     *     Nested objects found between the elements are added as well.
+     * </p>
+     * @param source  The buffer to scan.
+     * @param from  The index of the first byte to scan.
+     * @param to  The index after the last byte to scan.
+     * @throws HippoFileException  If an element is malformed.
+     * @throws UnsupportedOperationException  If the object is a snapshot.
+     */
+    public void scanElements(final ByteBuffer source, final int from, final int to) throws HippoFileException {
+        checkMutable();
+        final Builder builder = new Builder();
+        if(visitElements(name, source, from, to, builder) != to){
+            throw new HippoFileException("An exception was thrown whilst scanning elements!\n\nDetails:\nObject Name: " + name + "\nElements: " + decode(source, from, to) + "\n\nMaybe an object is closed too often?");
         }
-        boundBuilder.delete(0, 1).delete(boundBuilder.length() - 1, boundBuilder.length());
-        final String[] elements = boundBuilder.toString().split("\\)\\(");
-        for(final String element : elements){
-            final StringBuilder nameBuilder = new StringBuilder();
-            final String[] elementIndexes = element.split("\\[");
-            nameBuilder.append(elementIndexes[0]);
+        final Frame frame = builder.frames.peek();
+        addElements(frame.elements.toArray(new HippoFileElement[0]));
+        if(!frame.children.isEmpty()){
+            replaceObjects(objects -> {
+                final ArrayList<HippoFileObject> added = new ArrayList<>(objects);
+                added.addAll(frame.children);
+                return added;
+            });
+        }
+    }
+
+    /**
+     * Scans the bytes of {@code source} from {@code from} for elements and nested objects, handing each one to {@code visitor}.
+     * <p>
+     *     The scan stops at the brace closing the object being scanned, or at {@code to}.
+     * </p>
+     * @param name  The name of the object being scanned.
+     * @param source  The buffer to scan.
+     * @param from  The index of the first byte to scan.
+     * @param to  The index after the last byte that may be scanned.
+     * @param visitor  The visitor to hand the elements to.
+     * @return  The index of the closing brace, or {@code to} if there is none.
+     * @throws HippoFileException  If an element or nested object is malformed or the visitor fails.
+     */
+    private static int visitElements(final String name, final ByteBuffer source, final int from, final int to, final HippoFileElementVisitor visitor) throws HippoFileException {
+        int index = from;
+        while(index < to && source.get(index) != '}'){
+            final int elementStart = index;
+            if(source.get(index) != '('){
+                while(index < to && source.get(index) != '{' && source.get(index) != '(' && source.get(index) != ')' && source.get(index) != '}'){
+                    index++;
+                }
+                if(index == to || source.get(index) != '{'){
+                    throw new HippoFileException("An exception was thrown whilst scanning elements!\n\nDetails:\nObject Name: " + name + "\nElements: " + decode(source, from, to) + "\n\nMaybe an element is not enclosed in ()?");
+                }
+                final String objectName = decode(source, elementStart, index);
+                visitor.startObject(source, elementStart, index);
+                final int close = visitElements(objectName, source, index + 1, to, visitor);
+                if(close == to){
+                    throw new HippoFileException("An exception was thrown whilst scanning elements!\n\nDetails:\nObject Name: " + name + "\nNested Object Name: " + objectName + "\n\nMaybe the object is not enclosed in {}?");
+                }
+                index = close + 1;
+                visitor.endObject(source, elementStart, index);
+                continue;
+            }
+            final int nameStart = ++index;
+            while(index < to && source.get(index) != '[' && source.get(index) != ')'){
+                index++;
+            }
+            final int nameEnd = index;
+            visitor.visitElement(source, nameStart, nameEnd);
 
-            final StringBuilder valueBuilder = new StringBuilder();
-            final ArrayList<String> values = new ArrayList<>();
-            for(int i = 1; i < elementIndexes.length; i++){
-                final String value = elementIndexes[i];
-                valueBuilder.append(value).delete(valueBuilder.length() - 1, valueBuilder.length());
-                values.add(valueBuilder.toString());
-                valueBuilder.delete(0, valueBuilder.length());
+            while(index < to && source.get(index) == '['){
+                final int valueStart = ++index;
+                while(index < to && !(source.get(index) == ']' && (index + 1 == to || source.get(index + 1) == '[' || source.get(index + 1) == ')'))){
+                    index++;
+                }
+                visitor.visitValue(source, valueStart, index);
+                index++;
+            }
+            if(index >= to || source.get(index) != ')'){
+                throw new HippoFileException("An exception was thrown whilst scanning elements!\n\nDetails:\nObject Name: " + name + "\nElement Name: " + decode(source, nameStart, nameEnd) + "\n\nMaybe the element is not closed?");
             }
-            final HippoFileElement hippoFileElement = new HippoFileElement(nameBuilder.toString(), values.toArray());
-            this.elements.add(hippoFileElement);
+            index++;
+            visitor.endElement(source, elementStart, index);
         }
+        return index;
     }
 
     /**
      * Gets the list of {@link HippoFileElement}s.
+     * <p>
+     *     The list is an unmodifiable view of the elements as they are now, later changes do not show in it.
+     * </p>
      * @return  The elements.
      */
-    public ArrayList<HippoFileElement> getElements() {
-        return elements;
+    public List<HippoFileElement> getElements() {
+        return Collections.unmodifiableList(Arrays.asList(state.elements));
     }
 
     /**
@@ -121,13 +671,51 @@ public final class HippoFileObject {
      * @return  The content.
      */
     public String getContent(){
-        final StringBuilder content = new StringBuilder();
-        content.append(name + "{");
-        for(final HippoFileElement hippoFileElement : elements){
-            content.append(hippoFileElement.getContent());
+        return new String(encode(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets all the content inside of the {@link HippoFileObject} as UTF-8 bytes.
+     * <p>
+     *     The bytes are cached until the object changes, the returned buffer is a read only view of them.
+     * </p>
+     * @return  The encoded content.
+     */
+    public ByteBuffer getEncodedContent(){
+        return ByteBuffer.wrap(encode()).asReadOnlyBuffer();
+    }
+
+    /**
+     * Gets the cached encoded content, serializing the {@link HippoFileObject} if there is none.
+     * @return  The encoded content.
+     */
+    private byte[] encode(){
+        final State current = state;
+        byte[] content = current.encoded;
+        if(content == null){
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            final byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            outputStream.write(nameBytes, 0, nameBytes.length);
+            outputStream.write('{');
+            boolean cacheable = true;
+            for(final HippoFileElement hippoFileElement : current.elements){
+                final byte[] element = hippoFileElement.encode();
+                outputStream.write(element, 0, element.length);
+                cacheable &= hippoFileElement.isCacheable();
+            }
+            for(final HippoFileObject child : current.children){
+                final byte[] object = child.encode();
+                outputStream.write(object, 0, object.length - 1);
+                cacheable &= child.state.encoded != null;
+            }
+            outputStream.write('}');
+            outputStream.write('\n');
+            content = outputStream.toByteArray();
+            if(cacheable){
+                current.encoded = content;
+            }
         }
-        content.append("}\n");
-        return content.toString();
+        return content;
     }
 
     /**
@@ -137,4 +725,264 @@ public final class HippoFileObject {
     public String getName() {
         return name;
     }
+
+    /**
+     * Makes sure the {@link HippoFileObject} can be changed.
+     * @throws UnsupportedOperationException  If the object is a snapshot.
+     */
+    private void checkMutable(){
+        if(snapshot){
+            throw new UnsupportedOperationException("A hippo file object snapshot can not be changed!");
+        }
+    }
+
+    /**
+     * Copies the bytes of {@code source} between {@code from} and {@code to} into a new {@code array}.
+     * @param source  The buffer to copy from.
+     * @param from  The index of the first byte.
+     * @param to  The index after the last byte.
+     * @param extra  The amount of free bytes to leave at the end of the {@code array}.
+     * @return  The copied bytes.
+     */
+    private static byte[] copy(final ByteBuffer source, final int from, final int to, final int extra) {
+        final byte[] bytes = new byte[to - from + extra];
+        final ByteBuffer slice = source.duplicate();
+        slice.limit(to).position(from);
+        slice.get(bytes, 0, to - from);
+        return bytes;
+    }
+
+    /**
+     * Decodes the UTF-8 bytes of {@code source} between {@code from} and {@code to}.
+     * @param source  The buffer to decode from.
+     * @param from  The index of the first byte.
+     * @param to  The index after the last byte.
+     * @return  The decoded {@link String}.
+     */
+    public static String decode(final ByteBuffer source, final int from, final int to) {
+        if(source.hasArray()){
+            return new String(source.array(), source.arrayOffset() + from, to - from, StandardCharsets.UTF_8);
+        }
+        return new String(copy(source, from, to, 0), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * An immutable version of the elements and nested objects of a {@link HippoFileObject}.
+     */
+    private static final class State {
+
+        /**
+         * The elements, never changed.
+         */
+        private final HippoFileElement[] elements;
+
+        /**
+         * The nested objects, never changed.
+         */
+        private final HippoFileObject[] children;
+
+        /**
+         * The UTF-8 encoded content of the elements, {@code null} until it is read or first serialized.
+         */
+        private volatile byte[] encoded;
+
+        /**
+         * The hash index of the elements and nested objects, {@code null} until the first path lookup.
+         */
+        private volatile Index index;
+
+        /**
+         * Creates a new {@link State}.
+         * @param elements  The elements.
+         * @param children  The nested objects.
+         * @param encoded  The encoded content, or {@code null} if it is not known yet.
+         */
+        private State(final HippoFileElement[] elements, final HippoFileObject[] children, final byte[] encoded) {
+            this.elements = elements;
+            this.children = children;
+            this.encoded = encoded;
+        }
+
+        /**
+         * Gets the hash index of the elements and nested objects, building it if there is none.
+         * @return  The index.
+         */
+        private Index index() {
+            Index current = index;
+            if(current == null){
+                current = new Index(elements, children);
+                index = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * The elements and nested objects of a {@link State} by their {@link #key(String)}, the first one of each name wins.
+     * <p>
+     *     Together the indexes of all objects form a trie of the paths of a file.
+     * </p>
+     */
+    private static final class Index {
+
+        /**
+         * The elements by name.
+         */
+        private final HashMap<String, HippoFileElement> elements;
+
+        /**
+         * The nested objects by name.
+         */
+        private final HashMap<String, HippoFileObject> objects;
+
+        /**
+         * Creates a new {@link Index}.
+         * @param elements  The elements to index.
+         * @param children  The nested objects to index.
+         */
+        private Index(final HippoFileElement[] elements, final HippoFileObject[] children) {
+            this.elements = new HashMap<>(elements.length * 2);
+            for(final HippoFileElement element : elements){
+                this.elements.putIfAbsent(key(element.getName()), element);
+            }
+            this.objects = new HashMap<>(children.length * 2);
+            for(final HippoFileObject child : children){
+                this.objects.putIfAbsent(key(child.getName()), child);
+            }
+        }
+    }
+
+
+    /**
+     * The elements and nested objects read so far for one object of a {@link Builder}.
+     */
+    private static final class Frame {
+
+        /**
+         * The name of the object.
+         */
+        private final String name;
+
+        /**
+         * The read elements.
+         */
+        private final ArrayList<HippoFileElement> elements = new ArrayList<>();
+
+        /**
+         * The read nested objects.
+         */
+        private final ArrayList<HippoFileObject> children = new ArrayList<>();
+
+        /**
+         * Creates a new {@link Frame}.
+         * @param name  The name of the object.
+         */
+        private Frame(final String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * A {@link HippoFileElementVisitor} building the visited {@link HippoFileElement}s and nested {@link HippoFileObject}s.
+     */
+    private static final class Builder implements HippoFileElementVisitor {
+
+        /**
+         * The objects being read, the innermost first.
+         */
+        private final ArrayDeque<Frame> frames = new ArrayDeque<>();
+
+        /**
+         * The values of the element being visited.
+         */
+        private final ArrayList<String> values = new ArrayList<>();
+
+        /**
+         * The name of the element being visited.
+         */
+        private String name;
+
+        /**
+         * Creates a new {@link Builder}.
+         */
+        private Builder() {
+            frames.push(new Frame(null));
+        }
+
+        /**
+         * Builds the outermost object.
+         * @param name  The name of the object.
+         * @param source  The buffer holding the object.
+         * @param from  The index of the first byte of the object.
+         * @param to  The index after the last byte of the object.
+         * @return  The object.
+         */
+        private HippoFileObject build(final String name, final ByteBuffer source, final int from, final int to) {
+            return build(name, frames.pop(), source, from, to);
+        }
+
+        /**
+         * Builds an object out of {@code frame}, keeping the bytes it was read from as its encoded content.
+         * @param name  The name of the object.
+         * @param frame  The elements and nested objects of the object.
+         * @param source  The buffer holding the object.
+         * @param from  The index of the first byte of the object.
+         * @param to  The index after the last byte of the object.
+         * @return  The object.
+         */
+        private static HippoFileObject build(final String name, final Frame frame, final ByteBuffer source, final int from, final int to) {
+            final byte[] encoded = copy(source, from, to, 1);
+            encoded[encoded.length - 1] = '\n';
+            return new HippoFileObject(name, new State(frame.elements.toArray(new HippoFileElement[0]), frame.children.toArray(new HippoFileObject[0]), encoded), false);
+        }
+
+        /**
+         * @inheritDoc
+         * @see HippoFileElementVisitor#visitElement(ByteBuffer, int, int)
+         */
+        @Override
+        public void visitElement(final ByteBuffer source, final int from, final int to) {
+            name = decode(source, from, to);
+            values.clear();
+        }
+
+        /**
+         * @inheritDoc
+         * @see HippoFileElementVisitor#visitValue(ByteBuffer, int, int)
+         */
+        @Override
+        public void visitValue(final ByteBuffer source, final int from, final int to) {
+            values.add(decode(source, from, to));
+        }
+
+        /**
+         * @inheritDoc
+         * @see HippoFileElementVisitor#endElement(ByteBuffer, int, int)
+         */
+        @Override
+        public void endElement(final ByteBuffer source, final int from, final int to) {
+            final HippoFileElement hippoFileElement = new HippoFileElement(name, values.toArray());
+            hippoFileElement.encoded = copy(source, from, to, 0);
+            frames.peek().elements.add(hippoFileElement);
+        }
+
+        /**
+         * @inheritDoc
+         * @see HippoFileElementVisitor#startObject(ByteBuffer, int, int)
+         */
+        @Override
+        public void startObject(final ByteBuffer source, final int from, final int to) {
+            frames.push(new Frame(decode(source, from, to)));
+        }
+
+        /**
+         * @inheritDoc
+         * @see HippoFileElementVisitor#endObject(ByteBuffer, int, int)
+         */
+        @Override
+        public void endObject(final ByteBuffer source, final int from, final int to) {
+            final Frame frame = frames.pop();
+            frames.peek().children.add(build(frame.name, frame, source, from, to));
+        }
+    }
 }
@@ -0,0 +1,455 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Hippo
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.hippo.systems.hippofile.service;
+
+import me.hippo.systems.hippofile.HippoFile;
+import me.hippo.systems.hippofile.encrypt.Encrypter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads, saves and encrypts {@link HippoFile}s without blocking the calling thread.
+ * <p>
+ *     File I/O goes through {@link AsynchronousFileChannel}s, parsing and encryption run on {@code executor}.
+ *     At most {@code maxInFlight} operations run at once, any more are rejected instead of queued.
+ *     Saves and encrypts write to a temporary file next to {@code path} and move it into place once it is complete,
+ *     so concurrent writes of the same file never interleave and a cancelled or failed write leaves the file untouched.
+ *     Cancelling a returned future closes its channel. An operation keeps its in-flight slot until its parsing or encryption has actually stopped.
+ *     Opening files, parsing and encryption never run on the calling thread.
+ * </p>
+ * @author Hippo
+ * @since 10/19/2026
+ */
+public final class HippoFileAsyncService {
+
+    /**
+     * The size of the chunks small object buffers are merged into before writing.
+     */
+    private static final int CHUNK_SIZE = 256 * 1024;
+
+    /**
+     * The options used to open a file for reading.
+     */
+    private static final Set<StandardOpenOption> READ = EnumSet.of(StandardOpenOption.READ);
+
+    /**
+     * The options used to open a file for writing.
+     */
+    private static final Set<StandardOpenOption> WRITE = EnumSet.of(StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+
+    /**
+     * The {@link ExecutorService} that runs the channels' I/O, parsing and encryption.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The {@link Semaphore} limiting the amount of in-flight operations.
+     */
+    private final Semaphore inFlight;
+
+    /**
+     * Creates a new {@link HippoFileAsyncService}.
+     * @param executor  The executor to run I/O, parsing and encryption on.
+     * @param maxInFlight  The maximum amount of operations running at once.
+     * @throws IllegalArgumentException  If {@code maxInFlight} is less than 1.
+     */
+    public HippoFileAsyncService(final ExecutorService executor, final int maxInFlight) {
+        if(maxInFlight < 1){
+            throw new IllegalArgumentException("The maximum amount of in-flight operations must be at least 1!");
+        }
+        this.executor = executor;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Loads an already existing {@link HippoFile}.
+     * @param path  The path to the file.
+     * @param encrypters  The encrypters needed to decrypt the file.
+     * @return  A future completed with the file.
+     * @see HippoFileService#getFile(String, Encrypter...)
+     */
+    public CompletableFuture<HippoFile> loadAsync(final String path, final Encrypter... encrypters) {
+        return loadAsync(new File(path), encrypters);
+    }
+
+    /**
+     * @see #loadAsync(String, Encrypter...)
+     */
+    public CompletableFuture<HippoFile> loadAsync(final File path, final Encrypter... encrypters) {
+        final Operation operation = acquire();
+        if(operation != null){
+            supply(operation, () -> {
+                final AsynchronousFileChannel channel = open(operation, path, READ);
+                final long size = channel.size();
+                if(size > Integer.MAX_VALUE - 8){
+                    throw new IOException("The hippo file is too large to load at once!");
+                }
+                final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+                read(operation, channel, buffer, () -> {
+                    buffer.flip();
+                    return HippoFileService.getFile(path, buffer, encrypters);
+                });
+                return null;
+            });
+        }
+        return future(operation);
+    }
+
+    /**
+     * Saves a {@link HippoFile} to its {@code path}.
+     * @param hippoFile  The file to save.
+     * @return  A future completed with the file once it is written.
+     * @see HippoFile#save()
+     */
+    public CompletableFuture<HippoFile> saveAsync(final HippoFile hippoFile) {
+        final Operation operation = acquire();
+        if(operation != null){
+            supply(operation, () -> {
+                write(operation, hippoFile, coalesce(HippoFileService.convertToBuffers(hippoFile)));
+                return null;
+            });
+        }
+        return future(operation);
+    }
+
+    /**
+     * Encrypts a {@link HippoFile} to its {@code path} with {@link me.hippo.systems.hippofile.encrypt.StandardFileEncryptor}.
+     * @param hippoFile  The file to encrypt.
+     * @return  A future completed with the file once it is written.
+     * @see HippoFile#encrypt()
+     */
+    public CompletableFuture<HippoFile> encryptAsync(final HippoFile hippoFile) {
+        return encryptAsync(hippoFile, Encrypter.standard());
+    }
+
+    /**
+     * Encrypts a {@link HippoFile} to its {@code path} with the specified {@link Encrypter}s.
+     * @param hippoFile  The file to encrypt.
+     * @param encrypters  All the encrypters used to encrypt the file.
+     * @return  A future completed with the file once it is written.
+     * @see HippoFile#encrypt(Encrypter...)
+     */
+    public CompletableFuture<HippoFile> encryptAsync(final HippoFile hippoFile, final Encrypter... encrypters) {
+        final Operation operation = acquire();
+        if(operation != null){
+            supply(operation, () -> {
+                final String content = HippoFileService.convertToText(hippoFile);
+                final ByteBuffer[] buffers = new ByteBuffer[encrypters.length];
+                for(int i = 0; i < encrypters.length; i++){
+                    buffers[i] = ByteBuffer.wrap(encrypters[i].encrypt(content).getBytes(StandardCharsets.UTF_8));
+                }
+                write(operation, hippoFile, buffers);
+                return null;
+            });
+        }
+        return future(operation);
+    }
+
+    /**
+     * Reserves an in-flight slot for a new {@link Operation}.
+     * @return  The operation, or {@code null} if no slot was free.
+     */
+    private Operation acquire() {
+        return inFlight.tryAcquire() ? new Operation() : null;
+    }
+
+    /**
+     * Gets the future of {@code operation}.
+     * @param operation  The operation, {@code null} if it was rejected.
+     * @return  The future, completed with a {@link RejectedExecutionException} if the operation was rejected.
+     */
+    private static CompletableFuture<HippoFile> future(final Operation operation) {
+        if(operation == null){
+            final CompletableFuture<HippoFile> future = new CompletableFuture<>();
+            future.completeExceptionally(new RejectedExecutionException("Too many hippo file operations are in flight!"));
+            return future;
+        }
+        return operation.future;
+    }
+
+    /**
+     * Opens an {@link AsynchronousFileChannel} that is closed once the future of {@code operation} completes.
+     * @param operation  The operation.
+     * @param path  The path to open.
+     * @param options  The options to open the file with.
+     * @return  The channel.
+     * @throws IOException  If opening the file fails.
+     */
+    private AsynchronousFileChannel open(final Operation operation, final File path, final Set<StandardOpenOption> options) throws IOException {
+        final AsynchronousFileChannel channel = AsynchronousFileChannel.open(path.toPath(), options, executor);
+        operation.future.whenComplete((hippoFile, throwable) -> {
+            try {
+                channel.close();
+            }catch (IOException ignored){
+            }
+        });
+        return channel;
+    }
+
+    /**
+     * Runs {@code task} on the {@code executor}, completing the future of {@code operation} with its result if it is not {@code null}.
+     * <p>
+     *     The in-flight slot of {@code operation} is held while the task is queued or running, even if the future is cancelled meanwhile.
+     * </p>
+     * @param operation  The operation.
+     * @param task  The task to run.
+     */
+    private void supply(final Operation operation, final Callable<HippoFile> task) {
+        final CompletableFuture<HippoFile> future = operation.future;
+        if(!operation.enter()){
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    if(future.isDone()){
+                        return;
+                    }
+                    final HippoFile hippoFile = task.call();
+                    if(hippoFile != null){
+                        future.complete(hippoFile);
+                    }
+                }catch (Exception e){
+                    future.completeExceptionally(e);
+                }finally {
+                    operation.exit();
+                }
+            });
+        }catch (RejectedExecutionException e){
+            operation.exit();
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Reads {@code channel} until {@code buffer} is full or the end is reached, then completes the future of {@code operation} with {@code then}.
+     * @param operation  The operation.
+     * @param channel  The channel to read.
+     * @param buffer  The buffer to read into.
+     * @param then  The task turning the read content into a file.
+     */
+    private void read(final Operation operation, final AsynchronousFileChannel channel, final ByteBuffer buffer, final Callable<HippoFile> then) {
+        final CompletableFuture<HippoFile> future = operation.future;
+        if(!buffer.hasRemaining()){
+            supply(operation, then);
+            return;
+        }
+        channel.read(buffer, buffer.position(), null, new CompletionHandler<Integer, Void>() {
+            @Override
+            public void completed(final Integer read, final Void attachment) {
+                if(future.isDone()){
+                    return;
+                }
+                if(read == -1 || !buffer.hasRemaining()){
+                    supply(operation, then);
+                }else{
+                    channel.read(buffer, buffer.position(), null, this);
+                }
+            }
+
+            @Override
+            public void failed(final Throwable throwable, final Void attachment) {
+                future.completeExceptionally(throwable);
+            }
+        });
+    }
+
+    /**
+     * Writes {@code buffers} in order to a temporary file, moves it over the {@code path} of {@code hippoFile}, then completes the future of {@code operation} with it.
+     * @param operation  The operation.
+     * @param hippoFile  The file being written.
+     * @param buffers  The buffers to write.
+     * @throws IOException  If the file has no {@code path} or opening it fails.
+     */
+    private void write(final Operation operation, final HippoFile hippoFile, final ByteBuffer[] buffers) throws IOException {
+        final CompletableFuture<HippoFile> future = operation.future;
+        if(hippoFile.getPath() == null){
+            throw new IOException("The hippo file has no path, set its name and destination first!");
+        }
+        final Path target = hippoFile.getPath().getAbsoluteFile().toPath();
+        final Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        future.whenComplete((written, throwable) -> {
+            try {
+                Files.deleteIfExists(temporary);
+            }catch (IOException ignored){
+            }
+        });
+        final AsynchronousFileChannel channel = open(operation, temporary.toFile(), WRITE);
+        new CompletionHandler<Integer, Void>() {
+
+            /**
+             * The index of the buffer being written.
+             */
+            private int index;
+
+            /**
+             * The position in the file to write at.
+             */
+            private long position;
+
+            @Override
+            public void completed(final Integer written, final Void attachment) {
+                if(future.isDone()){
+                    return;
+                }
+                position += written;
+                while(index < buffers.length && !buffers[index].hasRemaining()){
+                    index++;
+                }
+                if(index == buffers.length){
+                    try {
+                        channel.force(false);
+                        channel.close();
+                        move(temporary, target);
+                        future.complete(hippoFile);
+                    }catch (IOException e){
+                        future.completeExceptionally(e);
+                    }
+                }else{
+                    channel.write(buffers[index], position, null, this);
+                }
+            }
+
+            @Override
+            public void failed(final Throwable throwable, final Void attachment) {
+                future.completeExceptionally(throwable);
+            }
+        }.completed(0, null);
+    }
+
+    /**
+     * Moves {@code temporary} over {@code target}, atomically if the file system supports it.
+     * @param temporary  The written file.
+     * @param target  The file to replace.
+     * @throws IOException  If the moving fails.
+     */
+    private static void move(final Path temporary, final Path target) throws IOException {
+        try {
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }catch (AtomicMoveNotSupportedException e){
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Merges runs of small buffers into chunks of {@link #CHUNK_SIZE}, so each write moves a meaningful amount of bytes.
+     * @param buffers  The buffers to merge.
+     * @return  The merged buffers, buffers of at least {@link #CHUNK_SIZE} are kept as they are.
+     */
+    private static ByteBuffer[] coalesce(final ByteBuffer[] buffers) {
+        final ArrayList<ByteBuffer> chunks = new ArrayList<>();
+        ByteBuffer chunk = null;
+        for(final ByteBuffer buffer : buffers){
+            if(buffer.remaining() >= CHUNK_SIZE){
+                if(chunk != null){
+                    chunks.add((ByteBuffer) chunk.flip());
+                    chunk = null;
+                }
+                chunks.add(buffer);
+                continue;
+            }
+            if(chunk == null || chunk.remaining() < buffer.remaining()){
+                if(chunk != null){
+                    chunks.add((ByteBuffer) chunk.flip());
+                }
+                chunk = ByteBuffer.allocate(CHUNK_SIZE);
+            }
+            chunk.put(buffer);
+        }
+        if(chunk != null){
+            chunks.add((ByteBuffer) chunk.flip());
+        }
+        return chunks.toArray(new ByteBuffer[0]);
+    }
+
+    /**
+     * One operation holding an in-flight slot.
+     * <p>
+     *     The slot is released once the future is completed and no task of the operation is queued or running,
+     *     so cancelling the future does not free the slot of work that is still going on.
+     * </p>
+     */
+    private final class Operation {
+
+        /**
+         * The future of the operation.
+         */
+        private final CompletableFuture<HippoFile> future = new CompletableFuture<>();
+
+        /**
+         * The queued or running tasks, plus one until the future is completed.
+         */
+        private final AtomicInteger holds = new AtomicInteger(1);
+
+        /**
+         * Creates a new {@link Operation}, its slot has to be acquired already.
+         */
+        private Operation() {
+            future.whenComplete((hippoFile, throwable) -> exit());
+        }
+
+        /**
+         * Holds the slot for a task.
+         * @return  If the slot is still held, otherwise the task must not run.
+         */
+        private boolean enter() {
+            int current;
+            while((current = holds.get()) > 0){
+                if(holds.compareAndSet(current, current + 1)){
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Stops holding the slot for a task or for the future, releasing it if nothing holds it anymore.
+         */
+        private void exit() {
+            if(holds.decrementAndGet() == 0){
+                inFlight.release();
+            }
+        }
+    }
+}
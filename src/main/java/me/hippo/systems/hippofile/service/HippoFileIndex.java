@@ -0,0 +1,321 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Hippo
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.hippo.systems.hippofile.service;
+
+import me.hippo.systems.hippofile.exception.HippoFileException;
+import me.hippo.systems.hippofile.object.HippoFileObject;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+/**
+ * Writes and reads the optional index footer of a hippo file.
+ * <p>
+ *     Only the first object with a name is indexed, like {@link me.hippo.systems.hippofile.HippoFile#getObject(String)} only finds the first one.
+ *     The footer follows the objects and is made of two lines:
+ *     {@code #HippoIndex{<slots>}} is an open addressing hash table with one fixed width slot per object name,
+ *     each slot holding the hash of the name and the offset, length and CRC32 of the object in hex.
+ *     {@code #HippoFooter[<offset>][<slots>]} is fixed width and gives the offset of the index and its amount of slots,
+ *     so an object can be found with three reads whatever the size of the file.
+ * </p>
+ * @author Hippo
+ * @since 10/19/2026
+ */
+final class HippoFileIndex {
+
+    /**
+     * The start of the index line.
+     */
+    private static final byte[] INDEX = "#HippoIndex{".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * The start of the footer line.
+     */
+    private static final byte[] FOOTER = "#HippoFooter[".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * The length of the footer line, {@code #HippoFooter[<16 hex>][<8 hex>]\n}.
+     */
+    private static final int FOOTER_LENGTH = FOOTER.length + 16 + 2 + 8 + 2;
+
+    /**
+     * The length of a slot, the name hash, offset, length and CRC32 in hex.
+     */
+    private static final int SLOT_LENGTH = 8 + 16 + 8 + 8;
+
+    /**
+     * The amount of slots read at once when probing.
+     */
+    private static final int PROBE_SLOTS = 8;
+
+    /**
+     * The hex digits.
+     */
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * This class only has static methods.
+     */
+    private HippoFileIndex() {
+    }
+
+    /**
+     * Makes the index and footer for {@code objects}, whose content is {@code buffers} written in order.
+     * @param objects  The objects.
+     * @param buffers  The encoded content of each object.
+     * @return  The index and footer lines.
+     */
+    static ByteBuffer write(final HippoFileObject[] objects, final ByteBuffer[] buffers) {
+        int slots = 1;
+        while(slots < objects.length * 2){
+            slots <<= 1;
+        }
+        final ByteBuffer footer = ByteBuffer.allocate(INDEX.length + slots * SLOT_LENGTH + 2 + FOOTER_LENGTH);
+        footer.put(INDEX);
+        final int table = footer.position();
+        for(int i = 0; i < slots * SLOT_LENGTH; i++){
+            footer.put((byte) '0');
+        }
+
+        final CRC32 crc = new CRC32();
+        final HashSet<String> names = new HashSet<>();
+        long offset = 0;
+        for(int i = 0; i < objects.length; i++){
+            final int length = buffers[i].remaining();
+            final String name = objects[i].getName().toLowerCase(Locale.ROOT);
+            if(names.add(name)){
+                final int hash = hash(name);
+                int slot = hash & (slots - 1);
+                while(length(footer, table, slot) != 0){
+                    slot = (slot + 1) & (slots - 1);
+                }
+                crc.reset();
+                crc.update(buffers[i].duplicate());
+                int index = table + slot * SLOT_LENGTH;
+                index = putHex(footer, index, hash & 0xFFFFFFFFL, 8);
+                index = putHex(footer, index, offset, 16);
+                index = putHex(footer, index, length, 8);
+                putHex(footer, index, crc.getValue(), 8);
+            }
+            offset += length;
+        }
+
+        footer.put((byte) '}').put((byte) '\n');
+        footer.put(FOOTER);
+        footer.position(putHex(footer, footer.position(), offset, 16));
+        footer.put((byte) ']').put((byte) '[');
+        footer.position(putHex(footer, footer.position(), slots, 8));
+        footer.put((byte) ']').put((byte) '\n');
+        footer.flip();
+        return footer;
+    }
+
+    /**
+     * Gets the length of the objects before the footer of {@code buffer}.
+     * <p>
+     *     The index is found from its amount of slots rather than its offset, so a footer left behind by an edit is still skipped.
+     * </p>
+     * @param buffer  The content of a file, from its position to its limit.
+     * @return  The index after the last object, {@code buffer.limit()} if there is no footer.
+     */
+    static int contentLimit(final ByteBuffer buffer) {
+        final int footer = buffer.limit() - FOOTER_LENGTH;
+        if(footer < buffer.position() || !startsWith(buffer, footer, FOOTER)){
+            return buffer.limit();
+        }
+        final long slots = parseHex(buffer, footer + FOOTER.length + 16 + 2, 8);
+        final long index = footer - (INDEX.length + slots * SLOT_LENGTH + 2);
+        if(slots <= 0 || index < buffer.position() || !startsWith(buffer, (int) index, INDEX)){
+            return buffer.limit();
+        }
+        return (int) index;
+    }
+
+    /**
+     * Finds an object through the footer of a file.
+     * @param channel  The file.
+     * @param name  The name of the object.
+     * @return  The object, or {@code null} if the file has no footer or the footer does not match the objects.
+     * @throws IOException  If the reading fails.
+     * @throws HippoFileException  If the object does not exist or can not be read.
+     */
+    static HippoFileObject find(final FileChannel channel, final String name) throws IOException, HippoFileException {
+        final long size = channel.size();
+        if(size < FOOTER_LENGTH){
+            return null;
+        }
+        final ByteBuffer footer = read(channel, size - FOOTER_LENGTH, FOOTER_LENGTH);
+        if(!startsWith(footer, 0, FOOTER)){
+            return null;
+        }
+        final long offset = parseHex(footer, FOOTER.length, 16);
+        final long slots = parseHex(footer, FOOTER.length + 16 + 2, 8);
+        if(offset < 0 || slots <= 0 || Long.bitCount(slots) != 1 || offset + INDEX.length + slots * SLOT_LENGTH > size - FOOTER_LENGTH){
+            return null;
+        }
+        if(!startsWith(read(channel, offset, INDEX.length), 0, INDEX)){
+            return null;
+        }
+
+        final int hash = hash(name.toLowerCase(Locale.ROOT));
+        long slot = hash & (slots - 1);
+        for(long probed = 0; probed < slots; ){
+            final int count = (int) Math.min(PROBE_SLOTS, slots - slot);
+            final ByteBuffer run = read(channel, offset + INDEX.length + slot * SLOT_LENGTH, count * SLOT_LENGTH);
+            for(int i = 0; i < count; i++, probed++){
+                final long length = length(run, 0, i);
+                if(length == 0){
+                    throw notFound(name);
+                }
+                if(length < 0 || parseHex(run, i * SLOT_LENGTH, 8) != (hash & 0xFFFFFFFFL)){
+                    continue;
+                }
+                final long objectOffset = parseHex(run, i * SLOT_LENGTH + 8, 16);
+                if(objectOffset < 0 || objectOffset + length > offset){
+                    return null;
+                }
+                final ByteBuffer object = read(channel, objectOffset, (int) length);
+                final CRC32 crc = new CRC32();
+                crc.update(object.duplicate());
+                if(crc.getValue() != parseHex(run, i * SLOT_LENGTH + 32, 8) || object.get((int) length - 1) != '\n'){
+                    return null;
+                }
+                final HippoFileObject hippoFileObject = HippoFileObject.read(object, 0, (int) length - 1);
+                if(hippoFileObject.getName().equalsIgnoreCase(name)){
+                    return hippoFileObject;
+                }
+            }
+            slot = (slot + count) & (slots - 1);
+        }
+        throw notFound(name);
+    }
+
+    /**
+     * Makes the exception thrown when an object is not in the index.
+     * @param name  The name of the object.
+     * @return  The exception.
+     */
+    private static HippoFileException notFound(final String name) {
+        return new HippoFileException("An exception was thrown whilst finding object!\n\nDetails:\nObject Name: " + name + "\nFound: null\n\nMaybe the object does not exist?");
+    }
+
+    /**
+     * Reads {@code length} bytes of {@code channel} at {@code position}.
+     * @param channel  The channel to read.
+     * @param position  The position to read at.
+     * @param length  The amount of bytes.
+     * @return  The read bytes.
+     * @throws IOException  If the reading fails or the end is reached.
+     */
+    private static ByteBuffer read(final FileChannel channel, final long position, final int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        while(buffer.hasRemaining()){
+            if(channel.read(buffer, position + buffer.position()) == -1){
+                throw new IOException("Unexpected end of hippo file!");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Hashes a lower case name.
+     * @param name  The name to hash.
+     * @return  The hash.
+     */
+    private static int hash(final String name) {
+        final int hash = name.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Gets the object length stored in a slot, {@code 0} if the slot is empty.
+     * @param buffer  The buffer holding the slots.
+     * @param table  The index of the first slot.
+     * @param slot  The slot.
+     * @return  The length.
+     */
+    private static long length(final ByteBuffer buffer, final int table, final int slot) {
+        return parseHex(buffer, table + slot * SLOT_LENGTH + 24, 8);
+    }
+
+    /**
+     * Checks if {@code buffer} holds {@code prefix} at {@code index}.
+     * @param buffer  The buffer.
+     * @param index  The index to check at.
+     * @param prefix  The expected bytes.
+     * @return  If the bytes match.
+     */
+    private static boolean startsWith(final ByteBuffer buffer, final int index, final byte[] prefix) {
+        if(index < 0 || index + prefix.length > buffer.limit()){
+            return false;
+        }
+        for(int i = 0; i < prefix.length; i++){
+            if(buffer.get(index + i) != prefix[i]){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes {@code value} as {@code digits} hex digits at {@code index}.
+     * @param buffer  The buffer to write to.
+     * @param index  The index to write at.
+     * @param value  The value.
+     * @param digits  The amount of digits.
+     * @return  The index after the digits.
+     */
+    private static int putHex(final ByteBuffer buffer, final int index, final long value, final int digits) {
+        for(int i = 0; i < digits; i++){
+            buffer.put(index + i, HEX[(int) (value >>> ((digits - 1 - i) * 4)) & 0xF]);
+        }
+        return index + digits;
+    }
+
+    /**
+     * Reads {@code digits} hex digits at {@code index}.
+     * @param buffer  The buffer to read.
+     * @param index  The index to read at.
+     * @param digits  The amount of digits.
+     * @return  The value, {@code -1} if a digit is not hex.
+     */
+    private static long parseHex(final ByteBuffer buffer, final int index, final int digits) {
+        long value = 0;
+        for(int i = 0; i < digits; i++){
+            final int digit = Character.digit(buffer.get(index + i), 16);
+            if(digit < 0){
+                return -1;
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+}
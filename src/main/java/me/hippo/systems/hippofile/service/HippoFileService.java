@@ -31,7 +31,14 @@ import me.hippo.systems.hippofile.object.HippoFileObject;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -58,21 +65,19 @@ public final class HippoFileService {
      * @see #getFile(String, Encrypter...)
      */
     public static HippoFile getFile(final File path, final Encrypter... encrypters) throws IOException, HippoFileException {
-        final ArrayList<String> lines = new ArrayList<>();
-        if(encrypters.length > 0){
-            final StringBuilder content = new StringBuilder();
-            for(final String line : Files.readAllLines(path.toPath())){
-                content.append(line).append("\n");
-            }
-            String decrypt = "";
-            for(final Encrypter encrypter : encrypters){
-                decrypt = encrypter.decrypt(content.toString());
-            }
-            lines.addAll(Arrays.asList(decrypt.split("\n")));
-        }else {
-            lines.addAll(Files.readAllLines(path.toPath()));
-        }
+        return getFile(path, ByteBuffer.wrap(Files.readAllBytes(path.toPath())), encrypters);
+    }
 
+    /**
+     * Gets an already existing {@link HippoFile} whose content has already been read.
+     * @param path  The path to the file.
+     * @param buffer  The content of the file, from its position to its limit.
+     * @param encrypters  The encrypters needed to decrypt the file.
+     * @return  The file.
+     * @throws IOException  If the creation of the file's {@code path} fails.
+     * @throws HippoFileException  If the reading of the elements fails.
+     */
+    public static HippoFile getFile(final File path, final ByteBuffer buffer, final Encrypter... encrypters) throws IOException, HippoFileException {
         final String[] dirs = path.getAbsolutePath().split("/");
         String fileName = "";
         final StringBuilder pathBuilder = new StringBuilder();
@@ -84,47 +89,228 @@ public final class HippoFileService {
             }
         }
         final HippoFile hippoFile = new HippoFile().setName(fileName).setDestination(pathBuilder.toString());
+        return read(hippoFile, buffer, encrypters);
+    }
 
-        for(final String line : lines){
-            final StringBuilder nameBuilder = new StringBuilder();
-            int startObject = 0;
-            for(final char name : line.toCharArray()){
-                if(name == '{'){
-                    break;
+    /**
+     * Reads a single {@link HippoFileObject} from an already existing file.
+     * <p>
+     *     If the file was saved {@link HippoFile#setIndexed(boolean) indexed} only the footer and the object are read,
+     *     otherwise, or if the footer does not match the objects anymore, the whole file is read.
+     *     Encrypted files never have a footer, they are always read and decrypted as a whole.
+     * </p>
+     * @param path  The path to the file.
+     * @param object  The name of the object.
+     * @param encrypters  The encrypters needed to decrypt the file.
+     * @return  The object.
+     * @throws IOException  If the reading of the file fails.
+     * @throws HippoFileException  If the object does not exist or the reading of its elements fails.
+     */
+    public static HippoFileObject readObject(final String path, final String object, final Encrypter... encrypters) throws IOException, HippoFileException {
+        return readObject(new File(path), object, encrypters);
+    }
+
+    /**
+     * @see #readObject(String, String, Encrypter...)
+     */
+    public static HippoFileObject readObject(final File path, final String object, final Encrypter... encrypters) throws IOException, HippoFileException {
+        try(final FileChannel channel = FileChannel.open(path.toPath(), StandardOpenOption.READ)){
+            if(encrypters.length == 0){
+                final HippoFileObject hippoFileObject = HippoFileIndex.find(channel, object);
+                if(hippoFileObject != null){
+                    return hippoFileObject;
                 }
-                nameBuilder.append(name);
-                startObject++;
+                channel.position(0);
             }
-            final HippoFileObject hippoFileObject = new HippoFileObject(nameBuilder.toString());
-            int subElements = 0;
-            for(int i = startObject; i < line.length(); i++){
-                final char character = line.charAt(i);
-                if(character == '{'){
-                    subElements++;
-                }
-                if(character == '}'){
-                    if(subElements == 0){
-                        break;
-                    }
-                    subElements--;
-                }
+            return getFile(channel, encrypters).getObject(object);
+        }
+    }
+
+    /**
+     * Gets a {@link HippoFile} from an {@link InputStream}.
+     * <p>
+     *     The stream is read to its end into a single buffer, it is not closed.
+     *     The returned file has no {@code path}, save it with {@link HippoFile#save(java.io.OutputStream)} or give it a name and destination.
+     * </p>
+     * @param inputStream  The stream to read.
+     * @param encrypters  The encrypters needed to decrypt the file.
+     * @return  The file.
+     * @throws IOException  If the reading of the stream fails.
+     * @throws HippoFileException  If the reading of the elements fails.
+     */
+    public static HippoFile getFile(final InputStream inputStream, final Encrypter... encrypters) throws IOException, HippoFileException {
+        byte[] buffer = new byte[Math.max(8192, inputStream.available())];
+        int length = 0;
+        int read;
+        while((read = inputStream.read(buffer, length, buffer.length - length)) != -1){
+            length += read;
+            if(length == buffer.length){
+                buffer = Arrays.copyOf(buffer, buffer.length << 1);
             }
-            final ArrayList<Character> elementList = new ArrayList<>();
-            for(int i = startObject + 1; i < line.length(); i++) {
-                final char character = line.charAt(i);
-                elementList.add(character);
-             }
-            final char[] elementChars = new char[elementList.size() - 1];
-            for(int i = 0; i < elementList.size() - 1; i++){
-
-                elementChars[i] = elementList.get(i);
+        }
+        return read(new HippoFile(), ByteBuffer.wrap(buffer, 0, length), encrypters);
+    }
+
+    /**
+     * Gets a {@link HippoFile} from a {@link ReadableByteChannel}.
+     * <p>
+     *     The channel is read to its end into a single buffer, it is not closed.
+     * </p>
+     * @param channel  The channel to read.
+     * @param encrypters  The encrypters needed to decrypt the file.
+     * @return  The file.
+     * @throws IOException  If the reading of the channel fails.
+     * @throws HippoFileException  If the reading of the elements fails.
+     * @see #getFile(InputStream, Encrypter...)
+     */
+    public static HippoFile getFile(final ReadableByteChannel channel, final Encrypter... encrypters) throws IOException, HippoFileException {
+        final long size = channel instanceof FileChannel ? ((FileChannel) channel).size() - ((FileChannel) channel).position() : 0;
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(Integer.MAX_VALUE - 8, Math.max(8192, size + 1)));
+        while(channel.read(buffer) != -1){
+            if(!buffer.hasRemaining()){
+                final ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() << 1);
+                buffer.flip();
+                buffer = grown.put(buffer);
             }
+        }
+        buffer.flip();
+        return read(new HippoFile(), buffer, encrypters);
+    }
 
-            hippoFileObject.scanElements(elementChars);
+    /**
+     * Gets a {@link HippoFile} from the remaining bytes of a {@link ByteBuffer}.
+     * <p>
+     *     The position and limit of {@code buffer} are left untouched.
+     * </p>
+     * @param buffer  The buffer to read.
+     * @param encrypters  The encrypters needed to decrypt the file.
+     * @return  The file.
+     * @throws HippoFileException  If the reading of the elements fails.
+     * @see #getFile(InputStream, Encrypter...)
+     */
+    public static HippoFile getFile(final ByteBuffer buffer, final Encrypter... encrypters) throws HippoFileException {
+        return read(new HippoFile(), buffer, encrypters);
+    }
 
-           hippoFile.addObject(hippoFileObject);
+    /**
+     * Gets a {@link HippoFile} from an {@code array} of {@code byte}.
+     * @param bytes  The UTF-8 encoded content.
+     * @param encrypters  The encrypters needed to decrypt the file.
+     * @return  The file.
+     * @throws HippoFileException  If the reading of the elements fails.
+     * @see #getFile(InputStream, Encrypter...)
+     */
+    public static HippoFile getFile(final byte[] bytes, final Encrypter... encrypters) throws HippoFileException {
+        return read(new HippoFile(), ByteBuffer.wrap(bytes), encrypters);
+    }
+
+    /**
+     * Parses a {@link HippoFile} from its text.
+     * <p>
+     *     This is not an overload of {@code getFile} because a {@link String} passed there is a path.
+     * </p>
+     * @param content  The content of the file.
+     * @param encrypters  The encrypters needed to decrypt the file.
+     * @return  The file.
+     * @throws HippoFileException  If the reading of the elements fails.
+     * @see #getFile(InputStream, Encrypter...)
+     */
+    public static HippoFile parseFile(final CharSequence content, final Encrypter... encrypters) throws HippoFileException {
+        if(encrypters.length > 0){
+            return read(new HippoFile(), decrypt(content.toString(), encrypters));
+        }
+        return read(new HippoFile(), StandardCharsets.UTF_8.encode(CharBuffer.wrap(content)));
+    }
+
+    /**
+     * Decrypts {@code buffer} if needed, then reads all of its objects into {@code hippoFile}.
+     * @param hippoFile  The file to add the objects to.
+     * @param buffer  The buffer to read.
+     * @param encrypters  The encrypters needed to decrypt the file.
+     * @return  The hippo file.
+     * @throws HippoFileException  If the reading of the elements fails.
+     */
+    private static HippoFile read(final HippoFile hippoFile, final ByteBuffer buffer, final Encrypter... encrypters) throws HippoFileException {
+        return read(hippoFile, decrypt(buffer, encrypters));
+    }
+
+    /**
+     * Reads every object of {@code buffer} into {@code hippoFile}.
+     * <p>
+     *     If {@code buffer} ends with an index footer the file is marked {@link HippoFile#setIndexed(boolean) indexed}, so saving it keeps the footer.
+     * </p>
+     * @param hippoFile  The file to add the objects to.
+     * @param buffer  The buffer to read, from its position to its limit.
+     * @return  The hippo file.
+     * @throws HippoFileException  If the reading of the elements fails.
+     */
+    private static HippoFile read(final HippoFile hippoFile, final ByteBuffer buffer) throws HippoFileException {
+        final ArrayList<HippoFileObject> objects = new ArrayList<>();
+        scanObjects(buffer, (source, from, to) -> objects.add(HippoFileObject.read(source, from, to)));
+        if(HippoFileIndex.contentLimit(buffer) != buffer.limit()){
+            hippoFile.setIndexed(true);
+        }
+        return hippoFile.addObjects(objects);
+    }
+
+    /**
+     * Scans {@code buffer} for objects, handing the bounds of each one to {@code visitor}.
+     * <p>
+     *     Each object is one line, blank lines are skipped. Nothing is parsed beyond finding the lines.
+     *     An index footer at the end of {@code buffer} is skipped as well.
+     * </p>
+     * @param buffer  The decrypted buffer to scan, from its position to its limit.
+     * @param visitor  The visitor to hand each object to.
+     * @throws HippoFileException  If the visitor fails.
+     */
+    public static void scanObjects(final ByteBuffer buffer, final HippoFileVisitor visitor) throws HippoFileException {
+        final int limit = HippoFileIndex.contentLimit(buffer);
+        int lineStart = buffer.position();
+        while(lineStart < limit){
+            int lineEnd = lineStart;
+            while(lineEnd < limit && buffer.get(lineEnd) != '\n'){
+                lineEnd++;
+            }
+            int end = lineEnd;
+            if(end > lineStart && buffer.get(end - 1) == '\r'){
+                end--;
+            }
+            if(end > lineStart){
+                visitor.visitObject(buffer, lineStart, end);
+            }
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    /**
+     * Decrypts {@code buffer} with {@code encrypters}.
+     * @param buffer  The encrypted content, from its position to its limit.
+     * @param encrypters  The encrypters needed to decrypt the content.
+     * @return  The decrypted content, or {@code buffer} itself if there are no {@code encrypters}.
+     */
+    public static ByteBuffer decrypt(final ByteBuffer buffer, final Encrypter... encrypters) {
+        if(encrypters.length > 0){
+            return decrypt(StandardCharsets.UTF_8.decode(buffer.duplicate()).toString(), encrypters);
+        }
+        return buffer;
+    }
+
+    /**
+     * Decrypts {@code content} with {@code encrypters}.
+     * <p>
+     *     The content always ends with a line break before decrypting, like it did when files were read line by line.
+     * </p>
+     * @param content  The encrypted content.
+     * @param encrypters  The encrypters needed to decrypt the content.
+     * @return  The decrypted content.
+     */
+    private static ByteBuffer decrypt(final String content, final Encrypter... encrypters) {
+        final String encrypted = content.endsWith("\n") ? content : content + "\n";
+        String decrypt = "";
+        for(final Encrypter encrypter : encrypters){
+            decrypt = encrypter.decrypt(encrypted);
         }
-        return hippoFile;
+        return StandardCharsets.UTF_8.encode(decrypt);
     }
 
     /**
@@ -134,12 +320,33 @@ public final class HippoFileService {
      */
     public static String convertToText(final HippoFile hippoFile) {
         final StringBuilder content = new StringBuilder();
-        for(final HippoFileObject object : hippoFile.getContent()){
+        for(final HippoFileObject object : hippoFile.snapshot().getContent()){
             content.append(object.getContent());
         }
         return content.toString();
     }
 
+    /**
+     * Converts a {@link HippoFile} to one {@link ByteBuffer} per object.
+     * <p>
+     *     The buffers are read only views of each object's cached content, so nothing is serialized for unchanged objects.
+     *     If the file is {@link HippoFile#isIndexed() indexed} the last buffer holds the index footer.
+     * </p>
+     * @param hippoFile  The hippo file to convert.
+     * @return  The converted file.
+     */
+    public static ByteBuffer[] convertToBuffers(final HippoFile hippoFile) {
+        final HippoFileObject[] objects = hippoFile.snapshot().getContent().toArray(new HippoFileObject[0]);
+        final ByteBuffer[] buffers = new ByteBuffer[objects.length + (hippoFile.isIndexed() ? 1 : 0)];
+        for(int i = 0; i < objects.length; i++){
+            buffers[i] = objects[i].getEncodedContent();
+        }
+        if(hippoFile.isIndexed()){
+            buffers[objects.length] = HippoFileIndex.write(objects, Arrays.copyOf(buffers, objects.length));
+        }
+        return buffers;
+    }
+
     /**
      * Gets the encrypted mappings for a {@link String}.
      * @param content  The content to make the mappings from.
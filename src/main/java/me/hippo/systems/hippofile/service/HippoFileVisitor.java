@@ -0,0 +1,50 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Hippo
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.hippo.systems.hippofile.service;
+
+import me.hippo.systems.hippofile.exception.HippoFileException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Visits the objects found by {@link HippoFileService#scanObjects(ByteBuffer, HippoFileVisitor)}.
+ * @author Hippo
+ * @since 10/19/2026
+ */
+@FunctionalInterface
+public interface HippoFileVisitor {
+
+    /**
+     * Visits one object.
+     * <p>
+     *     The bytes between {@code from} and {@code to} hold exactly one object, without its line break.
+     * </p>
+     * @param source  The buffer holding the object.
+     * @param from  The index of the first byte of the object.
+     * @param to  The index after the last byte of the object.
+     * @throws HippoFileException  If handling the object fails.
+     */
+    void visitObject(final ByteBuffer source, final int from, final int to) throws HippoFileException;
+}
@@ -0,0 +1,531 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Hippo
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.hippo.systems.hippofile.store;
+
+import me.hippo.systems.hippofile.HippoFile;
+import me.hippo.systems.hippofile.HippoFileSnapshot;
+import me.hippo.systems.hippofile.exception.HippoFileException;
+import me.hippo.systems.hippofile.mapper.HippoFileMapper;
+import me.hippo.systems.hippofile.object.HippoFileObject;
+import me.hippo.systems.hippofile.service.HippoFileService;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Spreads objects over several shard files in one directory.
+ * <p>
+ *     Every object goes to the shard picked by the hash of its lower case name, so all objects sharing a name are in the same shard.
+ *     Shards are loaded and saved in parallel, and saving only rewrites the shards that changed since they were last saved.
+ * </p>
+ * <p>
+ *     The directory holds a {@code store.manifest} with the generation and amount of shards, and the shards of that generation,
+ *     named {@code shard-<generation>-<index>.hippo}. Every file is written to a temporary file first and then moved over the old one,
+ *     so a crash leaves either the old or the new version of it. Shards are never encrypted or indexed.
+ * </p>
+ * @author Hippo
+ * @since 10/19/2026
+ */
+public final class HippoFileStore {
+
+    /**
+     * The name of the manifest file.
+     */
+    private static final String MANIFEST = "store.manifest";
+
+    /**
+     * The name of the object holding the manifest.
+     */
+    private static final String MANIFEST_OBJECT = "HippoFileStore";
+
+    /**
+     * Matches the file name of a shard, capturing its generation.
+     */
+    private static final Pattern SHARD = Pattern.compile("shard-(\\d+)-\\d+\\.hippo");
+
+    /**
+     * The directory holding the store.
+     */
+    private final File directory;
+
+    /**
+     * The {@link ExecutorService} loading and saving shards.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Held shared by changes and exclusively by {@link #reshard(int)}, so no change is lost while objects are moved.
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Held while saving, so only one save writes the files at a time.
+     */
+    private final Object saving = new Object();
+
+    /**
+     * The current shards.
+     */
+    private volatile Layout layout;
+
+    /**
+     * Creates a new {@link HippoFileStore}.
+     * @param directory  The directory holding the store.
+     * @param executor  The executor loading and saving shards.
+     * @param layout  The loaded shards.
+     */
+    private HippoFileStore(final File directory, final ExecutorService executor, final Layout layout) {
+        this.directory = directory;
+        this.executor = executor;
+        this.layout = layout;
+    }
+
+    /**
+     * Opens the store in {@code directory}, loading all of its shards in parallel.
+     * <p>
+     *     If the directory has no manifest a new, empty store with {@code shards} shards is made. Nothing is written until it is saved.
+     * </p>
+     * @param directory  The directory holding the store.
+     * @param shards  The amount of shards of a new store, ignored if the store already exists.
+     * @param executor  The executor loading and saving shards.
+     * @return  The store.
+     * @throws IOException  If the reading of a file fails.
+     * @throws HippoFileException  If the reading of the manifest or of a shard fails.
+     * @throws IllegalArgumentException  If {@code shards} is less than 1.
+     */
+    public static HippoFileStore open(final File directory, final int shards, final ExecutorService executor) throws IOException, HippoFileException {
+        if(shards < 1){
+            throw new IllegalArgumentException("A hippo file store needs at least 1 shard!");
+        }
+        if(!directory.isDirectory() && !directory.mkdirs()){
+            throw new IOException("Creation of the hippo file store directory failed!");
+        }
+        final File manifestFile = new File(directory, MANIFEST);
+        if(!manifestFile.exists()){
+            final HippoFile[] files = new HippoFile[shards];
+            for(int i = 0; i < shards; i++){
+                files[i] = new HippoFile().setName(shardName(0, i));
+            }
+            return new HippoFileStore(directory, executor, new Layout(0, files, false));
+        }
+        final Manifest manifest = HippoFileMapper.read(HippoFileService.getFile(Files.readAllBytes(manifestFile.toPath())).getObject(MANIFEST_OBJECT), Manifest.class);
+        if(manifest.shards < 1){
+            throw new HippoFileException("An exception was thrown whilst reading manifest!\n\nDetails:\nFile Name: " + manifestFile + "\nShards: " + manifest.shards + "\n\nMaybe the manifest is corrupt?");
+        }
+        final List<Callable<HippoFile>> tasks = new ArrayList<>(manifest.shards);
+        for(int i = 0; i < manifest.shards; i++){
+            final String name = shardName(manifest.generation, i);
+            tasks.add(() -> HippoFileService.getFile(ByteBuffer.wrap(Files.readAllBytes(new File(directory, name + ".hippo").toPath()))).setName(name));
+        }
+        final Layout layout = new Layout(manifest.generation, invokeAll(executor, tasks).toArray(new HippoFile[0]), true);
+        for(int i = 0; i < layout.shards.length; i++){
+            layout.saved[i] = layout.shards[i].snapshot();
+        }
+        return new HippoFileStore(directory, executor, layout);
+    }
+
+    /**
+     * Gets the first {@link HippoFileObject} named {@code object}.
+     * @param object  The name of the object.
+     * @return  The object.
+     * @throws HippoFileException  If the {@code object} doesn't exist.
+     */
+    public HippoFileObject getObject(final String object) throws HippoFileException {
+        Layout current = layout;
+        while(true){
+            try {
+                return current.route(object).getObject(object);
+            }catch (HippoFileException e){
+                if(current == layout){
+                    throw e;
+                }
+                current = layout;
+            }
+        }
+    }
+
+    /**
+     * Adds a {@link HippoFileObject} to its shard.
+     * @param hippoFileObject  The object to add.
+     * @return  The store.
+     */
+    public HippoFileStore addObject(final HippoFileObject hippoFileObject) {
+        lock.readLock().lock();
+        try {
+            layout.route(hippoFileObject.getName()).addObject(hippoFileObject);
+        }finally {
+            lock.readLock().unlock();
+        }
+        return this;
+    }
+
+    /**
+     * Removes the first {@link HippoFileObject} named {@code object}.
+     * @param object  The name of the object to remove.
+     * @return  The store.
+     * @throws HippoFileException  If the {@code object} doesn't exist.
+     */
+    public HippoFileStore removeObject(final String object) throws HippoFileException {
+        lock.readLock().lock();
+        try {
+            layout.route(object).removeObject(object);
+        }finally {
+            lock.readLock().unlock();
+        }
+        return this;
+    }
+
+    /**
+     * Replaces the first {@link HippoFileObject} with the name of {@code hippoFileObject}.
+     * @param hippoFileObject  The new object.
+     * @return  The store.
+     * @throws HippoFileException  If there is no object with that name.
+     */
+    public HippoFileStore replaceObject(final HippoFileObject hippoFileObject) throws HippoFileException {
+        lock.readLock().lock();
+        try {
+            layout.route(hippoFileObject.getName()).replaceObject(hippoFileObject);
+        }finally {
+            lock.readLock().unlock();
+        }
+        return this;
+    }
+
+    /**
+     * Gets the shard holding the objects named {@code object}.
+     * <p>
+     *     The shard can be changed directly, for example with a {@link me.hippo.systems.hippofile.HippoFileTransaction},
+     *     as long as only objects routed to it are added. A shard is replaced by {@link #reshard(int)}.
+     * </p>
+     * @param object  The name of the object.
+     * @return  The shard.
+     */
+    public HippoFile getShard(final String object) {
+        return layout.route(object);
+    }
+
+    /**
+     * Gets the amount of shards.
+     * @return  The amount of shards.
+     */
+    public int getShardCount() {
+        return layout.shards.length;
+    }
+
+    /**
+     * Gets all objects, shard by shard.
+     * @return  A copy of the objects.
+     */
+    public List<HippoFileObject> getContent() {
+        final ArrayList<HippoFileObject> content = new ArrayList<>();
+        for(final HippoFile shard : layout.shards){
+            content.addAll(shard.snapshot().getContent());
+        }
+        return content;
+    }
+
+    /**
+     * Saves every shard that changed since it was last saved, in parallel.
+     * <p>
+     *     After a {@link #reshard(int)} every shard is written, then the manifest is switched to the new generation and the old shards are deleted.
+     * </p>
+     * @return  The store.
+     * @throws IOException  If the writing of a file fails.
+     */
+    public HippoFileStore save() throws IOException {
+        synchronized (saving) {
+            final Layout current = layout;
+            final List<Callable<Void>> tasks = new ArrayList<>();
+            for(int i = 0; i < current.shards.length; i++){
+                final int index = i;
+                final HippoFile shard = current.shards[index];
+                if(shard.snapshot() != current.saved[index]){
+                    tasks.add(() -> {
+                        final HippoFileSnapshot snapshot = shard.snapshot();
+                        write(new File(directory, shard.getName() + ".hippo").toPath(), shard);
+                        current.saved[index] = snapshot;
+                        return null;
+                    });
+                }
+            }
+            try {
+                invokeAll(executor, tasks);
+            }catch (HippoFileException e){
+                throw new AssertionError("Saving a shard never reads objects!", e);
+            }
+            if(!current.persisted){
+                final Manifest manifest = new Manifest();
+                manifest.generation = current.generation;
+                manifest.shards = current.shards.length;
+                write(new File(directory, MANIFEST).toPath(), new HippoFile().addObject(HippoFileMapper.write(MANIFEST_OBJECT, manifest)));
+                current.persisted = true;
+                deleteGenerations(current.generation);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Moves all objects to {@code shards} new shards and saves them.
+     * <p>
+     *     Readers are never blocked, they keep using the old shards until the new ones are published.
+     *     Changes wait while the objects are moved, which happens in memory. The objects keep their instance.
+     *     If the saving fails the store keeps the new shards, and the next {@link #save()} tries again.
+     * </p>
+     * @param shards  The new amount of shards.
+     * @return  The store.
+     * @throws IOException  If the writing of a file fails.
+     * @throws IllegalArgumentException  If {@code shards} is less than 1.
+     */
+    public HippoFileStore reshard(final int shards) throws IOException {
+        if(shards < 1){
+            throw new IllegalArgumentException("A hippo file store needs at least 1 shard!");
+        }
+        synchronized (saving) {
+            lock.writeLock().lock();
+            try {
+                final Layout previous = layout;
+                if(previous.shards.length == shards){
+                    return this;
+                }
+                final List<List<HippoFileObject>> buckets = new ArrayList<>(shards);
+                for(int i = 0; i < shards; i++){
+                    buckets.add(new ArrayList<>());
+                }
+                for(final HippoFile shard : previous.shards){
+                    for(final HippoFileObject hippoFileObject : shard.getContent()){
+                        buckets.get(route(hippoFileObject.getName(), shards)).add(hippoFileObject);
+                    }
+                }
+                final HippoFile[] files = new HippoFile[shards];
+                for(int i = 0; i < shards; i++){
+                    files[i] = new HippoFile().setName(shardName(previous.generation + 1, i)).addObjects(buckets.get(i));
+                }
+                layout = new Layout(previous.generation + 1, files, false);
+                for(final HippoFile shard : previous.shards){
+                    shard.replaceContent(current -> Collections.emptyList());
+                }
+            }finally {
+                lock.writeLock().unlock();
+            }
+            return save();
+        }
+    }
+
+    /**
+     * Gets the {@code directory}.
+     * @return  The directory.
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Deletes the shards of every generation but {@code generation}, including those left behind by a crash.
+     * @param generation  The generation to keep.
+     * @throws IOException  If the deleting of a file fails.
+     */
+    private void deleteGenerations(final long generation) throws IOException {
+        final File[] files = directory.listFiles();
+        if(files == null){
+            throw new IOException("Listing of the hippo file store directory failed!");
+        }
+        for(final File file : files){
+            final Matcher matcher = SHARD.matcher(file.getName());
+            if(matcher.matches() && Long.parseLong(matcher.group(1)) != generation){
+                Files.deleteIfExists(file.toPath());
+            }
+        }
+    }
+
+    /**
+     * Writes {@code hippoFile} to a temporary file and moves it over {@code target}.
+     * @param target  The file to write.
+     * @param hippoFile  The content to write.
+     * @throws IOException  If the writing or moving fails.
+     */
+    private static void write(final Path target, final HippoFile hippoFile) throws IOException {
+        final Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try(final FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)){
+            hippoFile.save(channel);
+            channel.force(false);
+        }
+        try {
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }catch (AtomicMoveNotSupportedException e){
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Runs {@code tasks} on {@code executor} and waits for all of them.
+     * @param executor  The executor to run the tasks on.
+     * @param tasks  The tasks to run.
+     * @param <T>  The type of the results.
+     * @return  The results, in the order of {@code tasks}.
+     * @throws IOException  If a task fails with an {@link IOException} or the waiting is interrupted.
+     * @throws HippoFileException  If a task fails with a {@link HippoFileException}.
+     */
+    private static <T> List<T> invokeAll(final ExecutorService executor, final List<Callable<T>> tasks) throws IOException, HippoFileException {
+        final List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for(final Callable<T> task : tasks){
+            futures.add(executor.submit(task));
+        }
+        final List<T> results = new ArrayList<>(tasks.size());
+        boolean done = false;
+        try {
+            for(final Future<T> future : futures){
+                results.add(future.get());
+            }
+            done = true;
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Waiting for the hippo file store was interrupted!");
+        }catch (ExecutionException e){
+            final Throwable cause = e.getCause();
+            if(cause instanceof IOException){
+                throw (IOException) cause;
+            }
+            if(cause instanceof HippoFileException){
+                throw (HippoFileException) cause;
+            }
+            if(cause instanceof Error){
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }finally {
+            if(!done){
+                for(final Future<T> future : futures){
+                    future.cancel(true);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Gets the index of the shard holding the objects named {@code object}.
+     * @param object  The name of the object.
+     * @param shards  The amount of shards.
+     * @return  The index of the shard.
+     */
+    private static int route(final String object, final int shards) {
+        final int hash = object.toLowerCase(Locale.ROOT).hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), shards);
+    }
+
+    /**
+     * Gets the name of a shard.
+     * @param generation  The generation of the shard.
+     * @param index  The index of the shard.
+     * @return  The name, without the file extension.
+     */
+    private static String shardName(final long generation, final int index) {
+        return "shard-" + generation + "-" + index;
+    }
+
+    /**
+     * The shards of one generation.
+     */
+    private static final class Layout {
+
+        /**
+         * The generation of the shards, it goes up with every {@link #reshard(int)}.
+         */
+        private final long generation;
+
+        /**
+         * The shards.
+         */
+        private final HippoFile[] shards;
+
+        /**
+         * The snapshot of each shard when it was last saved or loaded, guarded by {@code saving}.
+         */
+        private final HippoFileSnapshot[] saved;
+
+        /**
+         * If the manifest names this generation.
+         */
+        private volatile boolean persisted;
+
+        /**
+         * Creates a new {@link Layout}.
+         * @param generation  The generation of the shards.
+         * @param shards  The shards.
+         * @param persisted  If the manifest names this generation.
+         */
+        private Layout(final long generation, final HippoFile[] shards, final boolean persisted) {
+            this.generation = generation;
+            this.shards = shards;
+            this.saved = new HippoFileSnapshot[shards.length];
+            this.persisted = persisted;
+        }
+
+        /**
+         * Gets the shard holding the objects named {@code object}.
+         * @param object  The name of the object.
+         * @return  The shard.
+         */
+        private HippoFile route(final String object) {
+            return shards[HippoFileStore.route(object, shards.length)];
+        }
+    }
+
+    /**
+     * The content of the manifest, read and written with {@link HippoFileMapper}.
+     */
+    private static final class Manifest {
+
+        /**
+         * The generation of the shards.
+         */
+        private long generation;
+
+        /**
+         * The amount of shards.
+         */
+        private int shards;
+    }
+}
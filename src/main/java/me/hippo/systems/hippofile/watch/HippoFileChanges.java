@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Hippo
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.hippo.systems.hippofile.watch;
+
+import me.hippo.systems.hippofile.object.HippoFileObject;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The {@link HippoFileObject}s a reload added, removed and modified.
+ * @author Hippo
+ * @since 10/19/2026
+ */
+public final class HippoFileChanges {
+
+    /**
+     * The objects that were added.
+     */
+    private final List<HippoFileObject> added;
+
+    /**
+     * The objects that were removed.
+     */
+    private final List<HippoFileObject> removed;
+
+    /**
+     * The new versions of the objects that were modified.
+     */
+    private final List<HippoFileObject> modified;
+
+    /**
+     * Creates a new {@link HippoFileChanges}.
+     * @param added  The objects that were added.
+     * @param removed  The objects that were removed.
+     * @param modified  The new versions of the objects that were modified.
+     */
+    public HippoFileChanges(final List<HippoFileObject> added, final List<HippoFileObject> removed, final List<HippoFileObject> modified) {
+        this.added = Collections.unmodifiableList(added);
+        this.removed = Collections.unmodifiableList(removed);
+        this.modified = Collections.unmodifiableList(modified);
+    }
+
+    /**
+     * Checks if nothing changed.
+     * @return  If nothing changed.
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && modified.isEmpty();
+    }
+
+    /**
+     * Gets the {@code added} objects.
+     * @return  The added objects.
+     */
+    public List<HippoFileObject> getAdded() {
+        return added;
+    }
+
+    /**
+     * Gets the {@code removed} objects.
+     * @return  The removed objects.
+     */
+    public List<HippoFileObject> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Gets the {@code modified} objects.
+     * <p>
+     *     These are the existing instances, updated in place with the content read from the file.
+     * </p>
+     * @return  The modified objects.
+     */
+    public List<HippoFileObject> getModified() {
+        return modified;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Hippo
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.hippo.systems.hippofile.watch;
+
+import me.hippo.systems.hippofile.HippoFile;
+
+/**
+ * Listens for the changes a {@link HippoFileWatcher} applies to a {@link HippoFile}.
+ * @author Hippo
+ * @since 10/19/2026
+ */
+@FunctionalInterface
+public interface HippoFileListener {
+
+    /**
+     * Called after {@code changes} have been applied to {@code hippoFile}.
+     * @param hippoFile  The reloaded file.
+     * @param changes  The applied changes, never empty.
+     */
+    void changed(final HippoFile hippoFile, final HippoFileChanges changes);
+
+    /**
+     * Called when reloading {@code hippoFile} fails, the file keeps its previous content.
+     * @param hippoFile  The file that failed to reload.
+     * @param exception  The reason it failed, an {@link java.io.IOException}, a {@link me.hippo.systems.hippofile.exception.HippoFileException} or a {@link RuntimeException}.
+     */
+    default void failed(final HippoFile hippoFile, final Exception exception) {
+    }
+}
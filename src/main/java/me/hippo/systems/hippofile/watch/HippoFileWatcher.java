@@ -0,0 +1,346 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Hippo
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.hippo.systems.hippofile.watch;
+
+import me.hippo.systems.hippofile.HippoFile;
+import me.hippo.systems.hippofile.encrypt.Encrypter;
+import me.hippo.systems.hippofile.exception.HippoFileException;
+import me.hippo.systems.hippofile.object.HippoFileObject;
+import me.hippo.systems.hippofile.service.HippoFileService;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the {@code path} of a {@link HippoFile} and reloads it when it is changed on disk.
+ * <p>
+ *     A reload only touches the objects that changed. Unchanged objects keep their instance and are not parsed again,
+ *     and the new content is published with {@link HippoFile#replaceContent(java.util.function.UnaryOperator)} so readers never see half of it.
+ * </p>
+ * <p>
+ *     Exceptions thrown by a {@link HippoFileListener} go to the uncaught exception handler of the thread, the other listeners are still notified and watching goes on.
+ * </p>
+ * @author Hippo
+ * @since 10/19/2026
+ */
+public final class HippoFileWatcher implements Closeable {
+
+    /**
+     * How long the file has to stay quiet before it is reloaded, in milliseconds.
+     */
+    private static final long SETTLE_MILLIS = 50;
+
+    /**
+     * The {@link HippoFile} being watched.
+     */
+    private final HippoFile hippoFile;
+
+    /**
+     * The encrypters needed to decrypt the file.
+     */
+    private final Encrypter[] encrypters;
+
+    /**
+     * The {@code path} of the file.
+     */
+    private final Path path;
+
+    /**
+     * The objects read from the file by the last reload, or the objects of the file when the watcher was created.
+     * <p>
+     *     Only used while holding the lock of {@link HippoFile#replaceContent(java.util.function.UnaryOperator)}.
+     * </p>
+     */
+    private Set<HippoFileObject> loaded = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * The {@link WatchService} watching the directory of {@code path}.
+     */
+    private final WatchService watchService;
+
+    /**
+     * The {@link HippoFileListener}s to notify.
+     */
+    private final CopyOnWriteArrayList<HippoFileListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * The {@link Thread} waiting for changes.
+     */
+    private final Thread thread;
+
+    /**
+     * Creates a new {@link HippoFileWatcher}, it does nothing until it is started.
+     * @param hippoFile  The file to watch.
+     * @param encrypters  The encrypters needed to decrypt the file.
+     * @throws IOException  If the file has no {@code path} or its directory can not be watched.
+     */
+    public HippoFileWatcher(final HippoFile hippoFile, final Encrypter... encrypters) throws IOException {
+        if(hippoFile.getPath() == null){
+            throw new IOException("The hippo file has no path, set its name and destination first!");
+        }
+        this.hippoFile = hippoFile;
+        this.encrypters = encrypters;
+        this.path = hippoFile.getPath().toPath().toAbsolutePath();
+        this.loaded.addAll(hippoFile.getContent());
+        this.watchService = path.getFileSystem().newWatchService();
+        path.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::watch, "HippoFileWatcher-" + hippoFile.getName());
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts watching the file.
+     * @return  The watcher.
+     */
+    public HippoFileWatcher start() {
+        thread.start();
+        return this;
+    }
+
+    /**
+     * Adds a {@link HippoFileListener}.
+     * @param listener  The listener to add.
+     * @return  The watcher.
+     */
+    public HippoFileWatcher addListener(final HippoFileListener listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Re-reads the file and applies the objects that changed.
+     * <p>
+     *     Objects are matched by their content first, then by their name. A read object with the content of an existing one keeps the existing instance,
+     *     a read object with the name of an unmatched existing one is applied to that instance with {@link HippoFileObject#replaceWith(HippoFileObject)},
+     *     so references to it stay valid, anything else is added.
+     *     An unmatched existing object is removed if it was read from the file, objects added in memory since the file was last read are kept.
+     *     The changes are computed while holding the lock of {@link HippoFile#replaceContent(java.util.function.UnaryOperator)},
+     *     so concurrent changes of the objects are not undone.
+     * </p>
+     * @return  The applied changes.
+     * @throws IOException  If reading the file fails.
+     * @throws HippoFileException  If reading an object fails, nothing is applied.
+     */
+    public HippoFileChanges reload() throws IOException, HippoFileException {
+        final ByteBuffer buffer = HippoFileService.decrypt(ByteBuffer.wrap(Files.readAllBytes(path)), encrypters);
+        final ArrayList<ByteBuffer> lines = new ArrayList<>();
+        HippoFileService.scanObjects(buffer, (source, from, to) -> {
+            final ByteBuffer line = source.duplicate();
+            line.limit(to).position(from);
+            lines.add(line);
+        });
+
+        final HippoFileChanges[] changes = new HippoFileChanges[1];
+        final HippoFileException[] failure = new HippoFileException[1];
+        hippoFile.replaceContent(content -> {
+            final ArrayList<HippoFileObject> next = new ArrayList<>();
+            try {
+                changes[0] = diff(content, lines, next);
+            }catch (HippoFileException e){
+                failure[0] = e;
+                return content;
+            }
+            return changes[0].isEmpty() ? content : next;
+        });
+        if(failure[0] != null){
+            throw failure[0];
+        }
+        if(!changes[0].isEmpty()){
+            for(final HippoFileListener listener : listeners){
+                try {
+                    listener.changed(hippoFile, changes[0]);
+                }catch (RuntimeException e){
+                    uncaught(e);
+                }
+            }
+        }
+        return changes[0];
+    }
+
+    /**
+     * Matches the read {@code lines} against the {@code current} objects, called while holding the lock of the file.
+     * @param current  The objects of the file.
+     * @param lines  The encoded content of each object in the file, without the line break.
+     * @param next  The list to put the new objects of the file in.
+     * @return  The changes.
+     * @throws HippoFileException  If reading an object fails.
+     */
+    private HippoFileChanges diff(final List<HippoFileObject> current, final List<ByteBuffer> lines, final List<HippoFileObject> next) throws HippoFileException {
+        final HashMap<ByteBuffer, ArrayDeque<HippoFileObject>> byContent = new HashMap<>();
+        for(final HippoFileObject hippoFileObject : current){
+            final ByteBuffer content = hippoFileObject.getEncodedContent();
+            content.limit(content.limit() - 1);
+            byContent.computeIfAbsent(content, key -> new ArrayDeque<>()).add(hippoFileObject);
+        }
+
+        final Set<HippoFileObject> unchanged = Collections.newSetFromMap(new IdentityHashMap<>());
+        final ArrayList<HippoFileObject> read = new ArrayList<>();
+        for(final ByteBuffer line : lines){
+            final ArrayDeque<HippoFileObject> matches = byContent.get(line);
+            if(matches != null && !matches.isEmpty()){
+                final HippoFileObject match = matches.poll();
+                unchanged.add(match);
+                next.add(match);
+            }else{
+                final HippoFileObject hippoFileObject = HippoFileObject.read(line, line.position(), line.limit());
+                read.add(hippoFileObject);
+                next.add(hippoFileObject);
+            }
+        }
+
+        final HashMap<String, ArrayDeque<HippoFileObject>> byName = new HashMap<>();
+        for(final HippoFileObject hippoFileObject : current){
+            if(!unchanged.contains(hippoFileObject)){
+                byName.computeIfAbsent(hippoFileObject.getName(), key -> new ArrayDeque<>()).add(hippoFileObject);
+            }
+        }
+        final Set<HippoFileObject> replaced = Collections.newSetFromMap(new IdentityHashMap<>());
+        final ArrayList<HippoFileObject> added = new ArrayList<>();
+        final ArrayList<HippoFileObject> modified = new ArrayList<>();
+        final IdentityHashMap<HippoFileObject, HippoFileObject> updated = new IdentityHashMap<>();
+        for(final HippoFileObject hippoFileObject : read){
+            final ArrayDeque<HippoFileObject> previous = byName.get(hippoFileObject.getName());
+            if(previous != null && !previous.isEmpty()){
+                final HippoFileObject existing = previous.poll();
+                replaced.add(existing);
+                if(existing.isSnapshot()){
+                    modified.add(hippoFileObject);
+                }else{
+                    existing.replaceWith(hippoFileObject);
+                    updated.put(hippoFileObject, existing);
+                    modified.add(existing);
+                }
+            }else{
+                added.add(hippoFileObject);
+            }
+        }
+        for(int i = 0; i < next.size(); i++){
+            final HippoFileObject existing = updated.get(next.get(i));
+            if(existing != null){
+                next.set(i, existing);
+            }
+        }
+
+        final Set<HippoFileObject> file = Collections.newSetFromMap(new IdentityHashMap<>());
+        file.addAll(next);
+        final ArrayList<HippoFileObject> removed = new ArrayList<>();
+        for(final HippoFileObject hippoFileObject : current){
+            if(unchanged.contains(hippoFileObject) || replaced.contains(hippoFileObject)){
+                continue;
+            }
+            if(loaded.contains(hippoFileObject)){
+                removed.add(hippoFileObject);
+            }else{
+                next.add(hippoFileObject);
+            }
+        }
+        loaded = file;
+        return new HippoFileChanges(added, removed, modified);
+    }
+
+    /**
+     * Stops watching the file.
+     * @throws IOException  If closing the {@link WatchService} fails.
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    /**
+     * Waits for changes to the file, reloading it once it settles.
+     * <p>
+     *     A failed reload is handed to every listener and watching goes on.
+     * </p>
+     */
+    private void watch() {
+        try {
+            while(true){
+                boolean changed = concerns(watchService.take());
+                if(!changed){
+                    continue;
+                }
+                WatchKey key;
+                while((key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null){
+                    concerns(key);
+                }
+                try {
+                    reload();
+                }catch (IOException | HippoFileException | RuntimeException e){
+                    for(final HippoFileListener listener : listeners){
+                        try {
+                            listener.failed(hippoFile, e);
+                        }catch (RuntimeException failure){
+                            uncaught(failure);
+                        }
+                    }
+                }
+            }
+        }catch (InterruptedException | ClosedWatchServiceException ignored){
+        }
+    }
+
+    /**
+     * Hands an exception thrown by a listener to the uncaught exception handler of the current thread, without stopping it.
+     * @param exception  The exception.
+     */
+    private static void uncaught(final RuntimeException exception) {
+        final Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, exception);
+    }
+
+    /**
+     * Drains the events of {@code key} and resets it.
+     * @param key  The key to drain.
+     * @return  If any of the events was about the watched file.
+     */
+    private boolean concerns(final WatchKey key) {
+        boolean concerns = false;
+        for(final WatchEvent<?> event : key.pollEvents()){
+            if(path.getFileName().equals(event.context())){
+                concerns = true;
+            }
+        }
+        key.reset();
+        return concerns;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Hippo
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.hippo.systems.hippofile;
+
+import me.hippo.systems.hippofile.exception.HippoFileException;
+import me.hippo.systems.hippofile.object.HippoFileElement;
+import me.hippo.systems.hippofile.object.HippoFileObject;
+import me.hippo.systems.hippofile.service.HippoFileService;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that {@link HippoFileSnapshot}s never change.
+ * @author Hippo
+ * @since 10/19/2026
+ */
+public final class HippoFileSnapshotTest {
+
+    /**
+     * A snapshot keeps the objects as they were when it was taken, later snapshots see the changes.
+     * @throws HippoFileException  If the parsing or a lookup fails.
+     */
+    @Test
+    public void unchangedByLaterChanges() throws HippoFileException {
+        final HippoFile hippoFile = HippoFileService.parseFile("A{(x[1])Inner{(y[2])}}\nB{(z[3])}\n");
+        final HippoFileSnapshot before = hippoFile.snapshot();
+        hippoFile.getObject("A").replaceElement(new HippoFileElement("x", 9));
+        hippoFile.getObjectPath("A.Inner").addElement(new HippoFileElement("w", 4));
+        hippoFile.addObject(new HippoFileObject("C"));
+        hippoFile.removeObject("B");
+
+        assertEquals("A{(x[1])Inner{(y[2])}}\n", before.getObject("A").getContent());
+        assertEquals("B{(z[3])}\n", before.getObject("B").getContent());
+        assertEquals(2, before.getContent().size());
+
+        final HippoFileSnapshot after = hippoFile.snapshot();
+        assertEquals("A{(x[9])Inner{(y[2])(w[4])}}\n", after.getObject("A").getContent());
+        assertEquals(2, after.getContent().size());
+        assertEquals("C", after.getContent().get(1).getName());
+    }
+
+    /**
+     * The objects of a snapshot can not be changed.
+     * @throws HippoFileException  If the parsing or a lookup fails.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void objectsAreImmutable() throws HippoFileException {
+        final HippoFileSnapshot snapshot = HippoFileService.parseFile("A{(x[1])}\n").snapshot();
+        assertTrue(snapshot.getObject("A").isSnapshot());
+        snapshot.getObject("A").addElement(new HippoFileElement("y", 2));
+    }
+
+    /**
+     * A snapshot taken while another thread keeps changing an object always holds a complete state of it.
+     * @throws Exception  If the parsing fails or the writer fails.
+     */
+    @Test
+    public void consistentWhileMutated() throws Exception {
+        final HippoFile hippoFile = HippoFileService.parseFile("A{(x[0])(y[0])}\n");
+        final HippoFileObject object = hippoFile.getObject("A");
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Thread writer = new Thread(() -> {
+            try {
+                for(int i = 1; i <= 20_000; i++){
+                    final int value = i;
+                    object.replaceElements(current -> Arrays.asList(new HippoFileElement("x", value), new HippoFileElement("y", value)));
+                }
+            }catch (Throwable throwable){
+                failure.set(throwable);
+            }
+        });
+        writer.start();
+        while(writer.isAlive()){
+            final HippoFileObject snapshot = hippoFile.snapshot().getObject("A");
+            final Object x = snapshot.getElement("x").getValues()[0];
+            final String content = snapshot.getContent();
+            assertEquals("A{(x[" + x + "])(y[" + x + "])}\n", content);
+        }
+        writer.join();
+        assertNull(failure.get());
+        assertEquals("A{(x[20000])(y[20000])}\n", hippoFile.snapshot().getObject("A").getContent());
+    }
+}
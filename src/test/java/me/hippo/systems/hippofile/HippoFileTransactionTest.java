@@ -0,0 +1,148 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Hippo
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.hippo.systems.hippofile;
+
+import me.hippo.systems.hippofile.exception.HippoFileException;
+import me.hippo.systems.hippofile.object.HippoFileElement;
+import me.hippo.systems.hippofile.object.HippoFileObject;
+import me.hippo.systems.hippofile.service.HippoFileService;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests validating, applying and rolling back {@link HippoFileTransaction}s.
+ * @author Hippo
+ * @since 10/19/2026
+ */
+public final class HippoFileTransactionTest {
+
+    /**
+     * The content every test starts with.
+     */
+    private static final String CONTENT = "A{(x[1])}\nB{(y[2])}\n";
+
+    /**
+     * All changes of a transaction are applied together and published as one snapshot.
+     * @throws HippoFileException  If the parsing or a change fails.
+     */
+    @Test
+    public void appliesAllChanges() throws HippoFileException {
+        final HippoFile hippoFile = HippoFileService.parseFile(CONTENT);
+        final HippoFileObject a = hippoFile.getObject("A");
+        final HippoFileSnapshot before = hippoFile.snapshot();
+        hippoFile.begin()
+                .addObject(new HippoFileObject("C").addElement(new HippoFileElement("z", 3)))
+                .replaceElement("a", new HippoFileElement("x", 9))
+                .addElement("A", new HippoFileElement("w", 4))
+                .removeObject("B")
+                .apply();
+        assertEquals("A{(x[9])(w[4])}\nC{(z[3])}\n", HippoFileService.convertToText(hippoFile));
+        assertSame(a, hippoFile.getObject("A"));
+        assertEquals(2, before.getContent().size());
+        assertEquals("A{(x[1])}\n", before.getObject("A").getContent());
+    }
+
+    /**
+     * A change that can not be applied fails the whole transaction, nothing is changed.
+     * @throws HippoFileException  If the parsing fails.
+     */
+    @Test
+    public void invalidChangeAppliesNothing() throws HippoFileException {
+        final HippoFile hippoFile = HippoFileService.parseFile(CONTENT);
+        final HippoFileSnapshot before = hippoFile.snapshot();
+        final HippoFileTransaction transaction = hippoFile.begin()
+                .replaceElement("A", new HippoFileElement("x", 9))
+                .removeObject("B")
+                .removeElement("A", "missing");
+        try {
+            transaction.apply();
+            fail("A transaction removing a missing element was applied!");
+        }catch (HippoFileException e){
+            assertTrue(e.getMessage().contains("missing"));
+        }
+        assertEquals(CONTENT, HippoFileService.convertToText(hippoFile));
+        assertSame(before, hippoFile.snapshot());
+    }
+
+    /**
+     * Changing an object the transaction removed earlier fails it.
+     * @throws HippoFileException  If the parsing fails.
+     */
+    @Test(expected = HippoFileException.class)
+    public void changeOfRemovedObject() throws HippoFileException {
+        HippoFileService.parseFile(CONTENT).begin()
+                .removeObject("B")
+                .addElement("B", new HippoFileElement("z", 3))
+                .apply();
+    }
+
+    /**
+     * A rolled back transaction changes nothing and can not be used anymore.
+     * @throws HippoFileException  If the parsing fails.
+     */
+    @Test
+    public void rollback() throws HippoFileException {
+        final HippoFile hippoFile = HippoFileService.parseFile(CONTENT);
+        final HippoFileTransaction transaction = hippoFile.begin().removeObject("A");
+        transaction.rollback();
+        assertEquals(CONTENT, HippoFileService.convertToText(hippoFile));
+        try {
+            transaction.apply();
+            fail("A rolled back transaction was applied!");
+        }catch (IllegalStateException ignored){
+        }
+    }
+
+    /**
+     * Closing an uncommitted transaction rolls it back.
+     * @throws HippoFileException  If the parsing fails.
+     */
+    @Test
+    public void closeRollsBack() throws HippoFileException {
+        final HippoFile hippoFile = HippoFileService.parseFile(CONTENT);
+        try(final HippoFileTransaction transaction = hippoFile.begin()){
+            transaction.removeObject("A").addObject(new HippoFileObject("C"));
+        }
+        assertEquals(CONTENT, HippoFileService.convertToText(hippoFile));
+    }
+
+    /**
+     * A transaction can only be committed once.
+     * @throws HippoFileException  If the parsing or a change fails.
+     * @throws IOException  Never, the file has no {@code path}.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void commitOnce() throws HippoFileException, IOException {
+        final HippoFileTransaction transaction = HippoFileService.parseFile(CONTENT).begin().removeObject("A");
+        transaction.commit();
+        transaction.commit();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Hippo
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.hippo.systems.hippofile.object;
+
+import me.hippo.systems.hippofile.HippoFile;
+import me.hippo.systems.hippofile.exception.HippoFileException;
+import me.hippo.systems.hippofile.service.HippoFileService;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests parsing and serializing nested {@link HippoFileObject}s.
+ * @author Hippo
+ * @since 10/19/2026
+ */
+public final class HippoFileObjectTest {
+
+    /**
+     * A file with nested objects, each line is one top level object.
+     */
+    private static final String NESTED = "Outer{(a[1])(b[2][3])Inner{(c[4])Deepest{(d[5])}}Other{}}\nFlat{(e[6])}\n";
+
+    /**
+     * Nested objects are serialized exactly as they were read.
+     * @throws HippoFileException  If the parsing fails.
+     */
+    @Test
+    public void nestedRoundTrip() throws HippoFileException {
+        final HippoFile hippoFile = HippoFileService.parseFile(NESTED);
+        assertEquals(2, hippoFile.getContent().size());
+        assertEquals(NESTED, HippoFileService.convertToText(hippoFile));
+        assertEquals(NESTED, HippoFileService.convertToText(HippoFileService.parseFile(HippoFileService.convertToText(hippoFile))));
+    }
+
+    /**
+     * Nested objects and their elements are found by path, ignoring case.
+     * @throws HippoFileException  If the parsing or a lookup fails.
+     */
+    @Test
+    public void nestedPaths() throws HippoFileException {
+        final HippoFile hippoFile = HippoFileService.parseFile(NESTED);
+        assertEquals("Deepest", hippoFile.getObjectPath("outer.inner.deepest").getName());
+        assertArrayEquals(new Object[]{"5"}, hippoFile.getPath("Outer.Inner.Deepest.d").getValues());
+        assertArrayEquals(new Object[]{"2", "3"}, hippoFile.getPath("Outer.b").getValues());
+        assertEquals(0, hippoFile.getObjectPath("Outer.Other").getElements().size());
+    }
+
+    /**
+     * Objects built in memory serialize with their nested objects after the elements, and read back the same.
+     * @throws HippoFileException  If the parsing fails.
+     */
+    @Test
+    public void builtRoundTrip() throws HippoFileException {
+        final HippoFileObject inner = new HippoFileObject("Inner").addElement(new HippoFileElement("c", 4));
+        final HippoFileObject outer = new HippoFileObject("Outer").addObject(inner).addElement(new HippoFileElement("a", 1));
+        final HippoFile hippoFile = new HippoFile().addObject(outer);
+        assertEquals("Outer{(a[1])Inner{(c[4])}}\n", HippoFileService.convertToText(hippoFile));
+        inner.addElement(new HippoFileElement("n", 7));
+        final String changed = HippoFileService.convertToText(hippoFile);
+        assertEquals("Outer{(a[1])Inner{(c[4])(n[7])}}\n", changed);
+        assertEquals(changed, HippoFileService.convertToText(HippoFileService.parseFile(changed)));
+    }
+
+    /**
+     * Unbalanced braces are rejected.
+     * @throws HippoFileException  Always.
+     */
+    @Test(expected = HippoFileException.class)
+    public void unbalanced() throws HippoFileException {
+        HippoFileService.parseFile("Outer{(a[1])Inner{(c[4])}\n");
+    }
+
+    /**
+     * The values of an element can not be changed through {@link HippoFileElement#getValues()}.
+     * @throws HippoFileException  If the parsing fails.
+     */
+    @Test
+    public void valuesAreCopied() throws HippoFileException {
+        final HippoFile hippoFile = HippoFileService.parseFile("A{(x[1])}\n");
+        hippoFile.getPath("A.x").getValues()[0] = "2";
+        assertEquals("A{(x[1])}\n", HippoFileService.convertToText(hippoFile));
+    }
+}
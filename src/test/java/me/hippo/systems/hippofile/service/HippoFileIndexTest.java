@@ -0,0 +1,141 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Hippo
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.hippo.systems.hippofile.service;
+
+import me.hippo.systems.hippofile.HippoFile;
+import me.hippo.systems.hippofile.encrypt.Encrypter;
+import me.hippo.systems.hippofile.exception.HippoFileException;
+import me.hippo.systems.hippofile.object.HippoFileElement;
+import me.hippo.systems.hippofile.object.HippoFileObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the index footer written by {@link HippoFile#setIndexed(boolean) indexed} files.
+ * @author Hippo
+ * @since 10/19/2026
+ */
+public final class HippoFileIndexTest {
+
+    /**
+     * The directory the files are saved in.
+     */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Saves an indexed file of {@code objects} objects named {@code Object0} and on.
+     * @param objects  The amount of objects.
+     * @return  The saved file.
+     * @throws IOException  If the saving fails.
+     */
+    private HippoFile save(final int objects) throws IOException {
+        final HippoFile hippoFile = new HippoFile().setName("indexed").setDestination(folder.getRoot().getPath()).setIndexed(true);
+        for(int i = 0; i < objects; i++){
+            hippoFile.addObject(new HippoFileObject("Object" + i).addElement(new HippoFileElement("value", i)));
+        }
+        return hippoFile.save();
+    }
+
+    /**
+     * Objects are read through the footer, ignoring case, and the footer is not read as an object.
+     * @throws IOException  If the saving or reading fails.
+     * @throws HippoFileException  If an object can not be read.
+     */
+    @Test
+    public void roundTrip() throws IOException, HippoFileException {
+        final File path = save(1000).getPath();
+        assertTrue(new String(Files.readAllBytes(path.toPath()), StandardCharsets.UTF_8).contains("#HippoFooter"));
+        assertEquals("Object0{(value[0])}\n", HippoFileService.readObject(path, "Object0").getContent());
+        assertEquals("Object999{(value[999])}\n", HippoFileService.readObject(path, "OBJECT999").getContent());
+        final HippoFile loaded = HippoFileService.getFile(path);
+        assertEquals(1000, loaded.getContent().size());
+        assertTrue(loaded.isIndexed());
+    }
+
+    /**
+     * A missing object fails, whether or not the file has a footer.
+     * @throws IOException  If the saving or reading fails.
+     * @throws HippoFileException  Always.
+     */
+    @Test(expected = HippoFileException.class)
+    public void missingObject() throws IOException, HippoFileException {
+        HippoFileService.readObject(save(10).getPath(), "Missing");
+    }
+
+    /**
+     * A footer that no longer matches the objects is ignored, the whole file is read instead.
+     * @throws IOException  If the saving or reading fails.
+     * @throws HippoFileException  If an object can not be read.
+     */
+    @Test
+    public void staleFooterFallsBack() throws IOException, HippoFileException {
+        final File path = save(100).getPath();
+        final String content = new String(Files.readAllBytes(path.toPath()), StandardCharsets.UTF_8);
+        Files.write(path.toPath(), content.replace("Object1{(value[1])}", "Object1{(value[11])}").getBytes(StandardCharsets.UTF_8));
+        assertEquals("Object1{(value[11])}\n", HippoFileService.readObject(path, "Object1").getContent());
+        assertEquals("Object50{(value[50])}\n", HippoFileService.readObject(path, "Object50").getContent());
+        assertEquals(100, HippoFileService.getFile(path).getContent().size());
+    }
+
+    /**
+     * Loading, changing and saving an indexed file keeps its footer up to date.
+     * @throws IOException  If the saving or reading fails.
+     * @throws HippoFileException  If an object can not be read.
+     */
+    @Test
+    public void loadChangeSaveKeepsFooter() throws IOException, HippoFileException {
+        final File path = save(100).getPath();
+        final HippoFile loaded = HippoFileService.getFile(path);
+        loaded.getObject("Object5").replaceElement(new HippoFileElement("value", 55));
+        loaded.save();
+        assertTrue(new String(Files.readAllBytes(path.toPath()), StandardCharsets.UTF_8).contains("#HippoFooter"));
+        assertEquals("Object5{(value[55])}\n", HippoFileService.readObject(path, "Object5").getContent());
+    }
+
+    /**
+     * Encrypted files have no footer and are read by decrypting them.
+     * @throws IOException  If the saving or reading fails.
+     * @throws HippoFileException  If an object can not be read.
+     */
+    @Test
+    public void encrypted() throws IOException, HippoFileException {
+        final HippoFile hippoFile = save(10);
+        hippoFile.encrypt();
+        final String content = new String(Files.readAllBytes(hippoFile.getPath().toPath()), StandardCharsets.UTF_8);
+        assertFalse(content.contains("#HippoFooter"));
+        assertEquals("Object3{(value[3])}\n", HippoFileService.readObject(hippoFile.getPath(), "Object3", Encrypter.standard()).getContent());
+    }
+}
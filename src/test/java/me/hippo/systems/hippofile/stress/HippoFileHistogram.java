@@ -0,0 +1,154 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Hippo
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.hippo.systems.hippofile.stress;
+
+/**
+ * A log-linear histogram of latencies, in the style of HdrHistogram.
+ * <p>
+ *     Values below {@code 2^SUB_BITS} are counted exactly. Larger values share a bucket with values differing less than {@code 1/2^(SUB_BITS - 1)},
+ *     so every percentile is accurate to within 1% while the histogram stays a fixed, small {@code array}.
+ *     A histogram is not thread safe, every thread records into its own and they are added together afterwards.
+ * </p>
+ * @author Hippo
+ * @since 10/19/2026
+ */
+final class HippoFileHistogram {
+
+    /**
+     * The amount of significant bits kept of each value.
+     */
+    private static final int SUB_BITS = 8;
+
+    /**
+     * The amount of values counted exactly.
+     */
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+
+    /**
+     * The amount of buckets of each power of two above {@code SUB_COUNT}.
+     */
+    private static final int HALF_COUNT = SUB_COUNT / 2;
+
+    /**
+     * The counts of every bucket.
+     */
+    private final long[] counts = new long[SUB_COUNT + (64 - SUB_BITS) * HALF_COUNT];
+
+    /**
+     * The amount of recorded values.
+     */
+    private long count;
+
+    /**
+     * The largest recorded value.
+     */
+    private long max;
+
+    /**
+     * Records a value.
+     * @param value  The value, negative values are recorded as {@code 0}.
+     */
+    void record(final long value) {
+        final long recorded = Math.max(value, 0);
+        counts[index(recorded)]++;
+        count++;
+        max = Math.max(max, recorded);
+    }
+
+    /**
+     * Adds all values of {@code histogram} to this histogram.
+     * @param histogram  The histogram to add.
+     */
+    void add(final HippoFileHistogram histogram) {
+        for(int i = 0; i < counts.length; i++){
+            counts[i] += histogram.counts[i];
+        }
+        count += histogram.count;
+        max = Math.max(max, histogram.max);
+    }
+
+    /**
+     * Gets the value below which {@code percentile} percent of the recorded values are.
+     * @param percentile  The percentile, between {@code 0} and {@code 100}.
+     * @return  The highest value sharing a bucket with the percentile, never more than the largest recorded value.
+     */
+    long percentile(final double percentile) {
+        if(count == 0){
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for(int i = 0; i < counts.length; i++){
+            seen += counts[i];
+            if(seen >= rank){
+                return Math.min(highest(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Gets the amount of recorded values.
+     * @return  The amount.
+     */
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the largest recorded value.
+     * @return  The largest value.
+     */
+    long getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the bucket of {@code value}.
+     * @param value  The value, not negative.
+     * @return  The index of the bucket.
+     */
+    private static int index(final long value) {
+        if(value < SUB_COUNT){
+            return (int) value;
+        }
+        final int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return SUB_COUNT + (shift - 1) * HALF_COUNT + (int) (value >>> shift) - HALF_COUNT;
+    }
+
+    /**
+     * Gets the highest value counted in a bucket.
+     * @param index  The index of the bucket.
+     * @return  The highest value.
+     */
+    private static long highest(final int index) {
+        if(index < SUB_COUNT){
+            return index;
+        }
+        final int shift = (index - SUB_COUNT) / HALF_COUNT + 1;
+        final long sub = (index - SUB_COUNT) % HALF_COUNT + HALF_COUNT;
+        return ((sub + 1) << shift) - 1;
+    }
+}
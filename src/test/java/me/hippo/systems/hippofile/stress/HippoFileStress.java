@@ -0,0 +1,528 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Hippo
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.hippo.systems.hippofile.stress;
+
+import me.hippo.systems.hippofile.HippoFile;
+import me.hippo.systems.hippofile.exception.HippoFileException;
+import me.hippo.systems.hippofile.object.HippoFileElement;
+import me.hippo.systems.hippofile.object.HippoFileObject;
+import me.hippo.systems.hippofile.service.HippoFileService;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Drives a mix of operations on hippo files from several threads and reports how they scale.
+ * <p>
+ *     A data set of generated objects is saved once, then every thread count runs the mix for a while,
+ *     either on one file shared by all threads or on a file of its own per thread.
+ *     For every operation the throughput, latency percentiles and bytes allocated are reported.
+ * </p>
+ * <p>
+ *     Run it with {@code gradle stress -Pstress="--threads 1,2,4,8 --objects 1000000"}. Options:
+ *     {@code --threads} the thread counts to run, {@code --mode} {@code shared} or {@code independent},
+ *     {@code --mix} the weight of each operation, for example {@code read=90,write=8,add=1,save=1,load=0},
+ *     {@code --objects}, {@code --elements} and {@code --value-size} the size of the data set,
+ *     {@code --warmup} and {@code --duration} in seconds, and {@code --directory} for the files.
+ * </p>
+ * @author Hippo
+ * @since 10/19/2026
+ */
+public final class HippoFileStress {
+
+    /**
+     * The operations the harness can run.
+     */
+    private enum Operation {
+        READ, WRITE, ADD, SAVE, LOAD
+    }
+
+    /**
+     * The thread counts to run.
+     */
+    private int[] threads;
+
+    /**
+     * If all threads share one file.
+     */
+    private boolean shared = true;
+
+    /**
+     * The weight of each {@link Operation}.
+     */
+    private final int[] weights = {90, 8, 1, 1, 0};
+
+    /**
+     * The amount of objects in the data set.
+     */
+    private int objects = 100_000;
+
+    /**
+     * The amount of elements in each object.
+     */
+    private int elements = 4;
+
+    /**
+     * The length of each value.
+     */
+    private int valueSize = 16;
+
+    /**
+     * How long each thread count warms up, in seconds.
+     */
+    private int warmup = 3;
+
+    /**
+     * How long each thread count is measured, in seconds.
+     */
+    private int duration = 10;
+
+    /**
+     * The directory the files are written to.
+     */
+    private File directory;
+
+    /**
+     * Measures the bytes allocated by each thread, {@code null} if the JVM can not.
+     */
+    private final com.sun.management.ThreadMXBean allocations;
+
+    /**
+     * Creates a new {@link HippoFileStress}.
+     */
+    private HippoFileStress() {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        final ArrayList<Integer> counts = new ArrayList<>();
+        for(int count = 1; count < processors; count *= 2){
+            counts.add(count);
+        }
+        counts.add(processors);
+        this.threads = counts.stream().mapToInt(Integer::intValue).toArray();
+        final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if(threadMXBean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemorySupported()){
+            this.allocations = (com.sun.management.ThreadMXBean) threadMXBean;
+            this.allocations.setThreadAllocatedMemoryEnabled(true);
+        }else{
+            this.allocations = null;
+        }
+    }
+
+    /**
+     * The main method.
+     * @param args  The options, see the class documentation.
+     */
+    public static void main(final String[] args) {
+        try {
+            final HippoFileStress stress = new HippoFileStress();
+            stress.parse(args);
+            stress.run();
+        }catch (IOException | HippoFileException | InterruptedException e){
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Parses the options.
+     * @param args  The options.
+     * @throws IllegalArgumentException  If an option is unknown or has no value.
+     */
+    private void parse(final String[] args) {
+        for(int i = 0; i < args.length; i++){
+            if(args[i].isEmpty()){
+                continue;
+            }
+            if(i + 1 == args.length){
+                throw new IllegalArgumentException("The option " + args[i] + " has no value!");
+            }
+            final String value = args[++i];
+            switch(args[i - 1]){
+                case "--threads":
+                    threads = Arrays.stream(value.split(",")).mapToInt(Integer::parseInt).toArray();
+                    break;
+                case "--mode":
+                    shared = value.equalsIgnoreCase("shared");
+                    break;
+                case "--mix":
+                    Arrays.fill(weights, 0);
+                    for(final String weight : value.split(",")){
+                        final String[] split = weight.split("=");
+                        weights[Operation.valueOf(split[0].toUpperCase(Locale.ROOT)).ordinal()] = Integer.parseInt(split[1]);
+                    }
+                    break;
+                case "--objects":
+                    objects = Integer.parseInt(value);
+                    break;
+                case "--elements":
+                    elements = Integer.parseInt(value);
+                    break;
+                case "--value-size":
+                    valueSize = Integer.parseInt(value);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                case "--duration":
+                    duration = Integer.parseInt(value);
+                    break;
+                case "--directory":
+                    directory = new File(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i - 1] + "!");
+            }
+        }
+        if(Arrays.stream(weights).sum() <= 0){
+            throw new IllegalArgumentException("The mix needs at least one operation!");
+        }
+    }
+
+    /**
+     * Generates and saves the data set, then runs every thread count.
+     * <p>
+     *     The data set is deleted afterwards, and so is the directory if the harness created it.
+     * </p>
+     * @throws IOException  If a file can not be written or read.
+     * @throws HippoFileException  If a file can not be read.
+     * @throws InterruptedException  If the harness is interrupted.
+     */
+    private void run() throws IOException, HippoFileException, InterruptedException {
+        final boolean temporary = directory == null;
+        if(temporary){
+            directory = Files.createTempDirectory("hippo-stress").toFile();
+        }
+        final HippoFile base = new HippoFile().setName("stress").setDestination(directory.getPath());
+        try {
+            final SplittableRandom random = new SplittableRandom(42);
+            final ArrayList<HippoFileObject> generated = new ArrayList<>(objects);
+            for(int i = 0; i < objects; i++){
+                generated.add(generate("Object" + i, random));
+            }
+            base.addObjects(generated).save();
+            generated.clear();
+            System.out.printf(Locale.ROOT, "Data set: %,d objects, %,d bytes in %s%n", objects, base.getPath().length(), base.getPath());
+            System.out.printf(Locale.ROOT, "Mode: %s, mix: %s, warmup: %ds, duration: %ds%n%n", shared ? "shared" : "independent", mix(), warmup, duration);
+            for(final int count : threads){
+                run(base, count);
+            }
+        }finally {
+            Files.deleteIfExists(base.getPath().toPath());
+            if(temporary){
+                Files.deleteIfExists(directory.toPath());
+            }
+        }
+    }
+
+    /**
+     * Runs the mix on {@code count} threads and prints the report.
+     * @param base  The saved data set.
+     * @param count  The amount of threads.
+     * @throws IOException  If a file can not be written or read.
+     * @throws HippoFileException  If a file can not be read.
+     * @throws InterruptedException  If the harness is interrupted.
+     */
+    private void run(final HippoFile base, final int count) throws IOException, HippoFileException, InterruptedException {
+        final HippoFile[] files = new HippoFile[count];
+        for(int i = 0; i < count; i++){
+            if(i == 0 || !shared){
+                final HippoFile copy = HippoFileService.getFile(base.getPath());
+                files[i] = copy.setName("stress-" + count + "-" + i);
+            }else{
+                files[i] = files[0];
+            }
+        }
+        System.gc();
+        final Worker[] workers = new Worker[count];
+        final CyclicBarrier barrier = new CyclicBarrier(count);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Thread[] running = new Thread[count];
+        for(int i = 0; i < count; i++){
+            workers[i] = new Worker(i, files[i], base.getPath(), barrier);
+            running[i] = new Thread(workers[i], "HippoFileStress-" + i);
+            running[i].setUncaughtExceptionHandler((thread, throwable) -> failure.compareAndSet(null, throwable));
+            running[i].start();
+        }
+        for(final Thread thread : running){
+            thread.join();
+        }
+        if(failure.get() != null){
+            throw new IllegalStateException("A stress thread failed!", failure.get());
+        }
+        report(count, workers);
+        for(int i = 0; i < count; i++){
+            if(i == 0 || !shared){
+                Files.deleteIfExists(files[i].getPath().toPath());
+            }
+        }
+    }
+
+    /**
+     * Prints the report of one thread count.
+     * <p>
+     *     Rates are over the measured time, from the first thread starting to measure to the last one stopping.
+     * </p>
+     * @param count  The amount of threads.
+     * @param workers  The workers that ran.
+     */
+    private void report(final int count, final Worker[] workers) {
+        long total = 0;
+        long allocated = 0;
+        long started = Long.MAX_VALUE;
+        long stopped = Long.MIN_VALUE;
+        for(final Worker worker : workers){
+            started = Math.min(started, worker.started);
+            stopped = Math.max(stopped, worker.stopped);
+        }
+        final double elapsed = (stopped - started) / 1e9;
+        System.out.printf(Locale.ROOT, "Threads: %d, measured: %.2fs%n", count, elapsed);
+        System.out.printf(Locale.ROOT, "%-6s %12s %12s %10s %10s %10s %10s %10s %12s%n", "op", "count", "ops/s", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us", "bytes/op");
+        for(final Operation operation : Operation.values()){
+            final HippoFileHistogram histogram = new HippoFileHistogram();
+            long bytes = 0;
+            for(final Worker worker : workers){
+                histogram.add(worker.latencies[operation.ordinal()]);
+                bytes += worker.allocated[operation.ordinal()];
+            }
+            if(histogram.getCount() == 0){
+                continue;
+            }
+            total += histogram.getCount();
+            allocated += bytes;
+            System.out.printf(Locale.ROOT, "%-6s %,12d %,12.0f %10.1f %10.1f %10.1f %10.1f %10.1f %12s%n",
+                    operation.name().toLowerCase(Locale.ROOT), histogram.getCount(), histogram.getCount() / elapsed,
+                    histogram.percentile(50) / 1000.0, histogram.percentile(90) / 1000.0, histogram.percentile(99) / 1000.0,
+                    histogram.percentile(99.9) / 1000.0, histogram.getMax() / 1000.0,
+                    allocations == null ? "n/a" : String.format(Locale.ROOT, "%,d", bytes / histogram.getCount()));
+        }
+        System.out.printf(Locale.ROOT, "Total: %,.0f ops/s, %s%n%n", total / elapsed,
+                allocations == null ? "allocation rate n/a" : String.format(Locale.ROOT, "%,.1f MB/s allocated", allocated / 1e6 / elapsed));
+    }
+
+    /**
+     * Generates an object of the data set.
+     * @param name  The name of the object.
+     * @param random  The random to generate values with.
+     * @return  The object.
+     */
+    private HippoFileObject generate(final String name, final SplittableRandom random) {
+        final HippoFileObject hippoFileObject = new HippoFileObject(name);
+        final HippoFileElement[] generated = new HippoFileElement[elements];
+        for(int i = 0; i < elements; i++){
+            generated[i] = new HippoFileElement("Element" + i, value(random));
+        }
+        return hippoFileObject.replaceElements(current -> Arrays.asList(generated));
+    }
+
+    /**
+     * Generates a value of {@code valueSize} letters.
+     * @param random  The random to generate it with.
+     * @return  The value.
+     */
+    private String value(final SplittableRandom random) {
+        final char[] value = new char[valueSize];
+        for(int i = 0; i < value.length; i++){
+            value[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(value);
+    }
+
+    /**
+     * Describes the mix.
+     * @return  The description.
+     */
+    private String mix() {
+        final Map<String, Integer> mix = new LinkedHashMap<>();
+        for(final Operation operation : Operation.values()){
+            if(weights[operation.ordinal()] > 0){
+                mix.put(operation.name().toLowerCase(Locale.ROOT), weights[operation.ordinal()]);
+            }
+        }
+        return mix.toString();
+    }
+
+    /**
+     * Runs the mix on one thread.
+     */
+    private final class Worker implements Runnable {
+
+        /**
+         * The index of the thread.
+         */
+        private final int index;
+
+        /**
+         * The file the thread works on.
+         */
+        private final HippoFile hippoFile;
+
+        /**
+         * The saved data set, read by {@link Operation#LOAD}.
+         */
+        private final File base;
+
+        /**
+         * Lines the threads up before warming up and before measuring.
+         */
+        private final CyclicBarrier barrier;
+
+        /**
+         * The latencies of each {@link Operation}, in nanoseconds.
+         */
+        private final HippoFileHistogram[] latencies = new HippoFileHistogram[Operation.values().length];
+
+        /**
+         * The bytes allocated by each {@link Operation}.
+         */
+        private final long[] allocated = new long[Operation.values().length];
+
+        /**
+         * The random picking operations and objects.
+         */
+        private final SplittableRandom random;
+
+        /**
+         * The amount of objects added by this thread.
+         */
+        private int added;
+
+        /**
+         * The {@link System#nanoTime()} the measured loop started at.
+         */
+        private long started;
+
+        /**
+         * The {@link System#nanoTime()} the measured loop stopped at, after its last operation.
+         */
+        private long stopped;
+
+        /**
+         * Creates a new {@link Worker}.
+         * @param index  The index of the thread.
+         * @param hippoFile  The file to work on.
+         * @param base  The saved data set.
+         * @param barrier  The barrier of all threads.
+         */
+        private Worker(final int index, final HippoFile hippoFile, final File base, final CyclicBarrier barrier) {
+            this.index = index;
+            this.hippoFile = hippoFile;
+            this.base = base;
+            this.barrier = barrier;
+            this.random = new SplittableRandom(index);
+            for(int i = 0; i < latencies.length; i++){
+                latencies[i] = new HippoFileHistogram();
+            }
+        }
+
+        /**
+         * @inheritDoc
+         * @see Runnable#run()
+         */
+        @Override
+        public void run() {
+            try {
+                barrier.await();
+                loop(warmup, false);
+                barrier.await();
+                loop(duration, true);
+            }catch (Exception e){
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * Runs random operations for {@code seconds}.
+         * @param seconds  How long to run.
+         * @param measure  If the operations are recorded.
+         * @throws IOException  If a file can not be written or read.
+         * @throws HippoFileException  If a file can not be read or an object is missing.
+         */
+        private void loop(final int seconds, final boolean measure) throws IOException, HippoFileException {
+            final long threadId = Thread.currentThread().getId();
+            final int total = Arrays.stream(weights).sum();
+            final long begin = System.nanoTime();
+            final long end = begin + seconds * 1_000_000_000L;
+            if(measure){
+                started = begin;
+            }
+            while(System.nanoTime() < end){
+                int pick = random.nextInt(total);
+                int operation = 0;
+                while(pick >= weights[operation]){
+                    pick -= weights[operation++];
+                }
+                final long allocatedBefore = measure && allocations != null ? allocations.getThreadAllocatedBytes(threadId) : 0;
+                final long start = System.nanoTime();
+                execute(Operation.values()[operation]);
+                final long latency = System.nanoTime() - start;
+                if(measure){
+                    latencies[operation].record(latency);
+                    if(allocations != null){
+                        allocated[operation] += allocations.getThreadAllocatedBytes(threadId) - allocatedBefore;
+                    }
+                }
+            }
+            if(measure){
+                stopped = System.nanoTime();
+            }
+        }
+
+        /**
+         * Executes one operation.
+         * @param operation  The operation.
+         * @throws IOException  If a file can not be written or read.
+         * @throws HippoFileException  If a file can not be read or an object is missing.
+         */
+        private void execute(final Operation operation) throws IOException, HippoFileException {
+            switch(operation){
+                case READ:
+                    hippoFile.getObject("Object" + random.nextInt(objects)).getElement("Element0");
+                    break;
+                case WRITE:
+                    hippoFile.getObject("Object" + random.nextInt(objects)).replaceElement(new HippoFileElement("Element0", value(random)));
+                    break;
+                case ADD:
+                    hippoFile.addObject(generate("Added" + index + "-" + added++, random));
+                    break;
+                case SAVE:
+                    hippoFile.save();
+                    break;
+                default:
+                    HippoFileService.getFile(base);
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Hippo
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.hippo.systems.hippofile.watch;
+
+import me.hippo.systems.hippofile.HippoFile;
+import me.hippo.systems.hippofile.exception.HippoFileException;
+import me.hippo.systems.hippofile.object.HippoFileElement;
+import me.hippo.systems.hippofile.object.HippoFileObject;
+import me.hippo.systems.hippofile.service.HippoFileService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the objects a {@link HippoFileWatcher} adds, removes and modifies on reload.
+ * @author Hippo
+ * @since 10/19/2026
+ */
+public final class HippoFileWatcherTest {
+
+    /**
+     * The directory of the watched file.
+     */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * The watched file on disk.
+     */
+    private Path path;
+
+    /**
+     * The watched file.
+     */
+    private HippoFile hippoFile;
+
+    /**
+     * The watcher, never started, the tests reload it themselves.
+     */
+    private HippoFileWatcher watcher;
+
+    /**
+     * Writes and loads the watched file.
+     * @throws IOException  If the writing or reading fails.
+     * @throws HippoFileException  If the parsing fails.
+     */
+    @Before
+    public void setUp() throws IOException, HippoFileException {
+        path = folder.getRoot().toPath().resolve("watched.hippo");
+        write("A{(x[1])}\nB{(y[2])}\nC{(z[3])}\n");
+        hippoFile = HippoFileService.getFile(path.toFile());
+        watcher = new HippoFileWatcher(hippoFile);
+    }
+
+    /**
+     * Closes the watcher.
+     * @throws IOException  If the closing fails.
+     */
+    @After
+    public void tearDown() throws IOException {
+        watcher.close();
+    }
+
+    /**
+     * Replaces the content of the watched file on disk.
+     * @param content  The new content.
+     * @throws IOException  If the writing fails.
+     */
+    private void write(final String content) throws IOException {
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Added, removed and modified objects are reported, unchanged and modified objects keep their instance.
+     * @throws IOException  If the writing or reading fails.
+     * @throws HippoFileException  If the parsing fails.
+     */
+    @Test
+    public void addRemoveModify() throws IOException, HippoFileException {
+        final HippoFileObject a = hippoFile.getObject("A");
+        final HippoFileObject b = hippoFile.getObject("B");
+        write("A{(x[1])}\nB{(y[9])}\nD{(w[4])}\n");
+        final HippoFileChanges changes = watcher.reload();
+
+        assertEquals(1, changes.getAdded().size());
+        assertEquals("D", changes.getAdded().get(0).getName());
+        assertEquals(1, changes.getRemoved().size());
+        assertEquals("C", changes.getRemoved().get(0).getName());
+        assertEquals(1, changes.getModified().size());
+        assertSame(b, changes.getModified().get(0));
+
+        assertSame(a, hippoFile.getObject("A"));
+        assertSame(b, hippoFile.getObject("B"));
+        assertEquals("A{(x[1])}\nB{(y[9])}\nD{(w[4])}\n", HippoFileService.convertToText(hippoFile));
+        assertEquals("B{(y[9])}\n", hippoFile.snapshot().getObject("B").getContent());
+
+        b.addElement(new HippoFileElement("v", 5));
+        assertEquals("B{(y[9])(v[5])}\n", hippoFile.snapshot().getObject("B").getContent());
+    }
+
+    /**
+     * Reloading an unchanged file changes nothing.
+     * @throws IOException  If the reading fails.
+     * @throws HippoFileException  If the parsing fails.
+     */
+    @Test
+    public void unchanged() throws IOException, HippoFileException {
+        assertTrue(watcher.reload().isEmpty());
+    }
+
+    /**
+     * Objects added in memory and not saved yet are kept, not removed.
+     * @throws IOException  If the writing or reading fails.
+     * @throws HippoFileException  If the parsing fails.
+     */
+    @Test
+    public void keepsUnsavedObjects() throws IOException, HippoFileException {
+        hippoFile.addObject(new HippoFileObject("Unsaved"));
+        write("A{(x[1])}\nB{(y[2])}\n");
+        final HippoFileChanges changes = watcher.reload();
+        assertEquals(1, changes.getRemoved().size());
+        assertEquals("C", changes.getRemoved().get(0).getName());
+        assertEquals("A{(x[1])}\nB{(y[2])}\nUnsaved{}\n", HippoFileService.convertToText(hippoFile));
+    }
+
+    /**
+     * A malformed file fails the reload and leaves the objects as they were.
+     * @throws IOException  If the writing or reading fails.
+     * @throws HippoFileException  If the parsing of the valid file fails.
+     */
+    @Test
+    public void malformedAppliesNothing() throws IOException, HippoFileException {
+        write("A{(x[5])}\nB{(y[2]}\n");
+        try {
+            watcher.reload();
+            fail("A malformed file was reloaded!");
+        }catch (HippoFileException ignored){
+        }
+        assertEquals("A{(x[1])}\nB{(y[2])}\nC{(z[3])}\n", HippoFileService.convertToText(hippoFile));
+    }
+}